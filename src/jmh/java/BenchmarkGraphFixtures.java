@@ -0,0 +1,113 @@
+import benchmarks.GraphFixtures;
+import benchmarks.Shape;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Default-package side of benchmarks.GraphFixtures, wrapping a GraphManager
+public class BenchmarkGraphFixtures implements GraphFixtures {
+    @Override
+    public Graph generate(Shape shape, int size, long seed) {
+        return new ManagedGraph(GraphGenerator.generate(shape, size, seed));
+    }
+
+    @Override
+    public Graph load(String format, Path path) {
+        GraphManager manager = new GraphManager();
+        String file = path.toString();
+        boolean loaded = switch (format) {
+            case "dot" -> manager.parseGraph(file);
+            case "dot-streaming" -> manager.parseGraphStreaming(file);
+            case "edge-list" -> manager.importEdgeList(file);
+            case "snapshot" -> manager.loadSnapshot(file);
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        if (!loaded) {
+            throw new IllegalStateException("Could not load " + format + " file: " + file);
+        }
+        return new ManagedGraph(manager);
+    }
+
+    private static final class ManagedGraph implements Graph {
+        private final GraphManager manager;
+
+        ManagedGraph(GraphManager manager) {
+            this.manager = manager;
+        }
+
+        @Override
+        public Search search(String algorithm) {
+            Algorithm algo = Algorithm.valueOf(algorithm);
+            return (src, dst) -> manager.searchPath(src, dst, algo);
+        }
+
+        @Override
+        public Search pathFinder(String algorithm) {
+            Algorithm algo = Algorithm.valueOf(algorithm);
+            GraphPathFinder finder = new GraphPathFinder(manager.getSnapshot());
+            return (src, dst) -> finder.findPath(src, dst, algo);
+        }
+
+        @Override
+        public Search template(String kind) {
+            GraphSearchAlgorithm template = switch (kind) {
+                case "bfs" -> new BFSTemplate(manager.getSnapshot());
+                case "dfs" -> new DFSTemplate(manager.getSnapshot());
+                default -> throw new IllegalArgumentException("Unknown template: " + kind);
+            };
+            return template::findPath;
+        }
+
+        @Override
+        public boolean addNode(String label) {
+            return manager.addNode(label);
+        }
+
+        @Override
+        public boolean addEdge(String src, String dst) {
+            return manager.addEdge(src, dst);
+        }
+
+        @Override
+        public boolean removeNode(String label) {
+            return manager.removeNode(label);
+        }
+
+        @Override
+        public int edgeCount() {
+            return manager.getEdgeCount();
+        }
+
+        @Override
+        public boolean write(String format, Path path) throws IOException {
+            String file = path.toString();
+            return switch (format) {
+                case "dot" -> manager.outputDOTGraph(file);
+                case "dot-gzip" -> manager.outputDOTGraph(file, true);
+                case "snapshot" -> manager.saveSnapshot(file);
+                case "edge-list" -> {
+                    writeEdgeList(manager.getSnapshot(), path);
+                    yield true;
+                }
+                default -> throw new IllegalArgumentException("Unknown format: " + format);
+            };
+        }
+
+        private static void writeEdgeList(GraphSnapshot graph, Path path) throws IOException {
+            try (Writer out = Files.newBufferedWriter(path)) {
+                for (int node = 0; node < graph.nodeCount(); node++) {
+                    for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+                        out.write(graph.label(node));
+                        out.write(' ');
+                        out.write(graph.label(graph.target(e)));
+                        out.write(' ');
+                        out.write(Double.toString(graph.weight(e)));
+                        out.write('\n');
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+import benchmarks.GraphFixtures;
+import benchmarks.Shape;
+
+import java.util.Random;
+
+// Builds synthetic graphs for the benchmarks. Nodes are labelled n0 .. n(size-1)
+// and every edge gets a weight in [1, 10] so weighted searches have work to do.
+final class GraphGenerator {
+    private static final int RANDOM_DEGREE = 4;
+    private static final int ATTACHMENTS = 3;
+
+    private GraphGenerator() {
+    }
+
+    static GraphManager generate(Shape shape, int size, long seed) {
+        GraphManager manager = new GraphManager();
+        Random random = new Random(seed);
+        for (int i = 0; i < size; i++) {
+            manager.addNode(GraphFixtures.label(i));
+        }
+        switch (shape) {
+            case RANDOM -> {
+                for (int i = 0; i < size; i++) {
+                    for (int k = 0; k < RANDOM_DEGREE; k++) {
+                        link(manager, random, i, random.nextInt(size));
+                    }
+                }
+            }
+            case SCALE_FREE -> {
+                // Each endpoint appears once per incident edge, so sampling it is degree-proportional
+                int[] endpoints = new int[2 * ATTACHMENTS * size + 2];
+                int count = 0;
+                for (int i = 1; i < size; i++) {
+                    for (int k = 0; k < Math.min(ATTACHMENTS, i); k++) {
+                        int target = count == 0 ? 0 : endpoints[random.nextInt(count)];
+                        link(manager, random, i, target);
+                        link(manager, random, target, i);
+                        endpoints[count++] = i;
+                        endpoints[count++] = target;
+                    }
+                }
+            }
+            case GRID -> {
+                int side = (int) Math.ceil(Math.sqrt(size));
+                for (int i = 0; i < size; i++) {
+                    if ((i + 1) % side != 0 && i + 1 < size) {
+                        link(manager, random, i, i + 1);
+                        link(manager, random, i + 1, i);
+                    }
+                    if (i + side < size) {
+                        link(manager, random, i, i + side);
+                        link(manager, random, i + side, i);
+                    }
+                }
+            }
+            case CHAIN -> {
+                for (int i = 0; i + 1 < size; i++) {
+                    link(manager, random, i, i + 1);
+                }
+            }
+        }
+        return manager;
+    }
+
+    private static void link(GraphManager manager, Random random, int src, int dst) {
+        manager.addEdge(GraphFixtures.label(src), GraphFixtures.label(dst), 1 + random.nextInt(10));
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+// JMH only generates code for benchmarks in a named package, and a named package
+// cannot import the project's default-package classes. The benchmarks therefore
+// go through this interface, implemented by BenchmarkGraphFixtures in the default
+// package and looked up once per trial, so the measured calls are plain interface calls.
+public interface GraphFixtures {
+    static GraphFixtures get() {
+        try {
+            return (GraphFixtures) Class.forName("BenchmarkGraphFixtures").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Benchmark fixtures are not on the classpath", e);
+        }
+    }
+
+    Graph generate(Shape shape, int size, long seed);
+
+    // Loads a file written by Graph.write; format is dot, dot-streaming, edge-list or snapshot
+    Graph load(String format, Path path);
+
+    interface Graph {
+        // Searcher for an Algorithm name through GraphManager.searchPath
+        Search search(String algorithm);
+
+        // Searcher for an Algorithm name through GraphPathFinder
+        Search pathFinder(String algorithm);
+
+        // Searcher for the bfs or dfs template class
+        Search template(String kind);
+
+        boolean addNode(String label);
+
+        boolean addEdge(String src, String dst);
+
+        boolean removeNode(String label);
+
+        int edgeCount();
+
+        // Saves the graph; format is dot, dot-gzip, edge-list or snapshot
+        boolean write(String format, Path path) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface Search {
+        Object find(String src, String dst);
+    }
+
+    static String label(int node) {
+        return "n" + node;
+    }
+
+    // Random (src, dst) label pairs; on a chain the source always precedes the destination
+    static String[][] queries(Shape shape, int size, int count, long seed) {
+        Random random = new Random(seed);
+        String[][] queries = new String[count][];
+        for (int i = 0; i < count; i++) {
+            int src = random.nextInt(size);
+            int dst = random.nextInt(size);
+            if (shape == Shape.CHAIN && src > dst) {
+                int swap = src;
+                src = dst;
+                dst = swap;
+            }
+            queries[i] = new String[]{label(src), label(dst)};
+        }
+        return queries;
+    }
+}
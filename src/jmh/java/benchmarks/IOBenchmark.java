@@ -0,0 +1,88 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Loading and saving generated graphs in each supported format. The graphviz-java
+// parser behind parseGraph is superlinear, so it is measured separately by
+// ParseGraphBenchmark on smaller graphs.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IOBenchmark {
+    @Param({"RANDOM", "SCALE_FREE", "GRID", "CHAIN"})
+    public Shape shape;
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    private GraphFixtures fixtures;
+    private GraphFixtures.Graph graph;
+    private Path directory;
+    private Path dotFile;
+    private Path edgeListFile;
+    private Path snapshotFile;
+    private Path outputFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fixtures = GraphFixtures.get();
+        graph = fixtures.generate(shape, size, 42);
+        directory = Files.createTempDirectory("jgraphkit-bench");
+        dotFile = directory.resolve("graph.dot");
+        edgeListFile = directory.resolve("graph.txt");
+        snapshotFile = directory.resolve("graph.snap");
+        outputFile = directory.resolve("output");
+        graph.write("dot", dotFile);
+        graph.write("edge-list", edgeListFile);
+        graph.write("snapshot", snapshotFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public int parseGraphStreaming() {
+        return fixtures.load("dot-streaming", dotFile).edgeCount();
+    }
+
+    @Benchmark
+    public int importEdgeList() {
+        return fixtures.load("edge-list", edgeListFile).edgeCount();
+    }
+
+    @Benchmark
+    public int loadSnapshot() {
+        return fixtures.load("snapshot", snapshotFile).edgeCount();
+    }
+
+    @Benchmark
+    public boolean outputDOTGraph() throws IOException {
+        return graph.write("dot", outputFile);
+    }
+
+    @Benchmark
+    public boolean outputDOTGraphGzip() throws IOException {
+        return graph.write("dot-gzip", outputFile);
+    }
+
+    @Benchmark
+    public boolean saveSnapshot() throws IOException {
+        return graph.write("snapshot", outputFile);
+    }
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Throughput of single-node and single-edge mutations on a generated graph
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MutationBenchmark {
+    private static final int REMOVALS = 100;
+
+    @Param({"RANDOM", "SCALE_FREE", "GRID", "CHAIN"})
+    public Shape shape;
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private GraphFixtures fixtures;
+    private GraphFixtures.Graph graph;
+    private Random random;
+    private int added;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        fixtures = GraphFixtures.get();
+        graph = fixtures.generate(shape, size, 42);
+        random = new Random(7);
+        added = 0;
+    }
+
+    @Benchmark
+    public boolean addNode() {
+        return graph.addNode("added" + added++);
+    }
+
+    @Benchmark
+    public boolean addEdge() {
+        return graph.addEdge(GraphFixtures.label(random.nextInt(size)), GraphFixtures.label(random.nextInt(size)));
+    }
+
+    // Removal shrinks the graph, so each invocation removes a batch from a fresh copy
+    @State(Scope.Thread)
+    public static class Removal {
+        GraphFixtures.Graph graph;
+        String[] victims;
+
+        @Setup(Level.Invocation)
+        public void setUp(MutationBenchmark benchmark) {
+            graph = benchmark.fixtures.generate(benchmark.shape, benchmark.size, 42);
+            victims = new Random(7).ints(0, benchmark.size).distinct().limit(REMOVALS)
+                    .mapToObj(GraphFixtures::label).toArray(String[]::new);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REMOVALS)
+    public boolean removeNode(Removal removal) {
+        boolean removed = true;
+        for (String victim : removal.victims) {
+            removed &= removal.graph.removeNode(victim);
+        }
+        return removed;
+    }
+}
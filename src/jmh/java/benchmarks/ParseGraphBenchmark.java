@@ -0,0 +1,44 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// GraphManager.parseGraph through the graphviz-java parser, on graphs small enough
+// for it (long chains overflow its recursive hashing, so CHAIN is left out)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=error")
+public class ParseGraphBenchmark {
+    @Param({"RANDOM", "SCALE_FREE", "GRID"})
+    public Shape shape;
+
+    @Param({"100", "500"})
+    public int size;
+
+    private GraphFixtures fixtures;
+    private Path dotFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fixtures = GraphFixtures.get();
+        dotFile = Files.createTempFile("jgraphkit-bench", ".dot");
+        fixtures.generate(shape, size, 42).write("dot", dotFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(dotFile);
+    }
+
+    @Benchmark
+    public int parseGraph() {
+        return fixtures.load("dot", dotFile).edgeCount();
+    }
+}
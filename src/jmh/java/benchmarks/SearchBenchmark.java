@@ -0,0 +1,56 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Path queries through GraphManager (every SearchStrategy) and GraphPathFinder
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+    static final int QUERIES = 256;
+
+    @Param({"RANDOM", "SCALE_FREE", "GRID", "CHAIN"})
+    public Shape shape;
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    @Param({"BFS", "DFS", "RANDOM_WALK", "BIDIRECTIONAL_BFS", "DIJKSTRA", "A_STAR", "PARALLEL_BFS"})
+    public String algorithm;
+
+    private GraphFixtures.Search strategy;
+    private GraphFixtures.Search pathFinder;
+    private String[][] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GraphFixtures.Graph graph = GraphFixtures.get().generate(shape, size, 42);
+        strategy = graph.search(algorithm);
+        pathFinder = graph.pathFinder(algorithm);
+        queries = GraphFixtures.queries(shape, size, QUERIES, 7);
+    }
+
+    private String[] nextQuery() {
+        String[] query = queries[next];
+        next = (next + 1) % QUERIES;
+        return query;
+    }
+
+    @Benchmark
+    public Object searchPath() {
+        String[] query = nextQuery();
+        return strategy.find(query[0], query[1]);
+    }
+
+    @Benchmark
+    public Object pathFinder() {
+        String[] query = nextQuery();
+        return pathFinder.find(query[0], query[1]);
+    }
+}
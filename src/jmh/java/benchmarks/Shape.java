@@ -0,0 +1,9 @@
+package benchmarks;
+
+// Generated graph families; GraphGenerator builds them
+public enum Shape {
+    RANDOM,     // Uniform random out-edges, average out-degree 4
+    SCALE_FREE, // Preferential attachment, 3 links per new node in both directions
+    GRID,       // Square lattice with edges in all four directions
+    CHAIN       // n0 -> n1 -> ... -> n(size-1)
+}
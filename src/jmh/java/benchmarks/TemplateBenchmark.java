@@ -0,0 +1,51 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// The template-method searches over the same graphs and queries as SearchBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateBenchmark {
+    @Param({"RANDOM", "SCALE_FREE", "GRID", "CHAIN"})
+    public Shape shape;
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private GraphFixtures.Search bfs;
+    private GraphFixtures.Search dfs;
+    private String[][] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GraphFixtures.Graph graph = GraphFixtures.get().generate(shape, size, 42);
+        bfs = graph.template("bfs");
+        dfs = graph.template("dfs");
+        queries = GraphFixtures.queries(shape, size, SearchBenchmark.QUERIES, 7);
+    }
+
+    private String[] nextQuery() {
+        String[] query = queries[next];
+        next = (next + 1) % SearchBenchmark.QUERIES;
+        return query;
+    }
+
+    @Benchmark
+    public Object bfsTemplate() {
+        String[] query = nextQuery();
+        return bfs.find(query[0], query[1]);
+    }
+
+    @Benchmark
+    public Object dfsTemplate() {
+        String[] query = nextQuery();
+        return dfs.find(query[0], query[1]);
+    }
+}
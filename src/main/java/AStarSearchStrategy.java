@@ -0,0 +1,86 @@
+// Goal-directed Dijkstra: nodes are expanded in order of cost so far plus the
+// heuristic's estimate of the remaining cost to the destination. Uses the same
+// pooled SearchContext state as DijkstraSearchStrategy.
+public class AStarSearchStrategy implements SearchStrategy {
+    private final SearchHeuristic heuristic;
+
+    public AStarSearchStrategy() {
+        this(SearchHeuristic.euclidean());
+    }
+
+    public AStarSearchStrategy(SearchHeuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    public GraphPath findPath(GraphSnapshot graph, String srcLabel, String dstLabel, SearchStats stats) {
+        return findPath(graph, srcLabel, dstLabel, stats, null);
+    }
+
+    @Override
+    public GraphPath findPath(GraphSnapshot graph, String srcLabel, String dstLabel, SearchStats stats,
+                              StronglyConnectedComponents components) {
+        // Find source and destination nodes
+        int src = graph.idOf(srcLabel);
+        int dst = graph.idOf(dstLabel);
+        
+        if (src < 0 || dst < 0) {
+            throw new IllegalArgumentException("Source or destination node does not exist");
+        }
+        int floor = components == null ? Integer.MIN_VALUE : components.component(dst);
+        
+        SearchContext context = SearchContext.acquire(graph.nodeCount());
+        try {
+            return search(graph, src, dst, stats, components, floor, context);
+        } finally {
+            context.release();
+        }
+    }
+
+    private GraphPath search(GraphSnapshot graph, int src, int dst, SearchStats stats,
+                             StronglyConnectedComponents components, int floor, SearchContext context) {
+        IndexedMinHeap queue = context.prepareWeighted();
+        double[] dist = context.distance;
+        int[] parent = context.parent;
+        
+        context.visit(src);
+        dist[src] = 0;
+        parent[src] = -1;
+        queue.insertOrDecrease(src, heuristic.estimate(graph, src, dst));
+        int expanded = 0;
+        
+        while (!queue.isEmpty()) {
+            stats.frontier(queue.size());
+            int current = queue.pollMin();
+            expanded++;
+            
+            if (current == dst) {
+                GraphPath path = GraphPath.fromParents(graph, parent, dst);
+                path.setCost(dist[dst]);
+                path.setExpandedNodes(expanded);
+                return path;
+            }
+            
+            stats.expand(graph.degree(current));
+            for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                double weight = graph.weight(e);
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Negative edge weight from " + graph.label(current)
+                            + " to " + graph.label(graph.target(e)) + ": " + weight);
+                }
+                int neighbor = graph.target(e);
+                if (components != null && components.component(neighbor) < floor) {
+                    continue;
+                }
+                double candidate = dist[current] + weight;
+                if (context.visit(neighbor) || candidate < dist[neighbor]) {
+                    // A node closed under an inconsistent heuristic is simply re-queued
+                    dist[neighbor] = candidate;
+                    parent[neighbor] = current;
+                    queue.insertOrDecrease(neighbor, candidate + heuristic.estimate(graph, neighbor, dst));
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -1,5 +1,9 @@
 public enum Algorithm {
     BFS,
     DFS,
-    RANDOM_WALK
+    RANDOM_WALK,
+    BIDIRECTIONAL_BFS,
+    DIJKSTRA,
+    A_STAR,
+    PARALLEL_BFS
 }
\ No newline at end of file
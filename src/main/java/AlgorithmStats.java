@@ -0,0 +1,95 @@
+import java.beans.ConstructorProperties;
+
+// Point-in-time metrics of one search algorithm, as returned by SearchMetrics.snapshot()
+public final class AlgorithmStats {
+    private final String algorithm;
+    private final long queryCount;
+    private final long foundCount;
+    private final long nodesExpanded;
+    private final long edgesScanned;
+    private final long peakFrontier;
+    private final double meanLatencyMicros;
+    private final double p50LatencyMicros;
+    private final double p99LatencyMicros;
+    private final double p999LatencyMicros;
+    private final double maxLatencyMicros;
+
+    @ConstructorProperties({"algorithm", "queryCount", "foundCount", "nodesExpanded", "edgesScanned", "peakFrontier",
+            "meanLatencyMicros", "p50LatencyMicros", "p99LatencyMicros", "p999LatencyMicros", "maxLatencyMicros"})
+    public AlgorithmStats(String algorithm, long queryCount, long foundCount, long nodesExpanded, long edgesScanned,
+                          long peakFrontier, double meanLatencyMicros, double p50LatencyMicros,
+                          double p99LatencyMicros, double p999LatencyMicros, double maxLatencyMicros) {
+        this.algorithm = algorithm;
+        this.queryCount = queryCount;
+        this.foundCount = foundCount;
+        this.nodesExpanded = nodesExpanded;
+        this.edgesScanned = edgesScanned;
+        this.peakFrontier = peakFrontier;
+        this.meanLatencyMicros = meanLatencyMicros;
+        this.p50LatencyMicros = p50LatencyMicros;
+        this.p99LatencyMicros = p99LatencyMicros;
+        this.p999LatencyMicros = p999LatencyMicros;
+        this.maxLatencyMicros = maxLatencyMicros;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public long getQueryCount() {
+        return queryCount;
+    }
+
+    public long getFoundCount() {
+        return foundCount;
+    }
+
+    public long getNotFoundCount() {
+        return queryCount - foundCount;
+    }
+
+    public double getFoundRatio() {
+        return queryCount == 0 ? 0 : (double) foundCount / queryCount;
+    }
+
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    public long getEdgesScanned() {
+        return edgesScanned;
+    }
+
+    public long getPeakFrontier() {
+        return peakFrontier;
+    }
+
+    public double getMeanLatencyMicros() {
+        return meanLatencyMicros;
+    }
+
+    public double getP50LatencyMicros() {
+        return p50LatencyMicros;
+    }
+
+    public double getP99LatencyMicros() {
+        return p99LatencyMicros;
+    }
+
+    public double getP999LatencyMicros() {
+        return p999LatencyMicros;
+    }
+
+    public double getMaxLatencyMicros() {
+        return maxLatencyMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(java.util.Locale.ROOT,
+                "%s: %d queries (%.1f%% found), %d nodes expanded, %d edges scanned, peak frontier %d, "
+                        + "latency mean %.1f us p50 %.1f us p99 %.1f us p999 %.1f us max %.1f us",
+                algorithm, queryCount, 100 * getFoundRatio(), nodesExpanded, edgesScanned, peakFrontier,
+                meanLatencyMicros, p50LatencyMicros, p99LatencyMicros, p999LatencyMicros, maxLatencyMicros);
+    }
+}
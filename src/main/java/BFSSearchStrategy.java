@@ -1,69 +1,55 @@
-import guru.nidi.graphviz.model.Link;
-import guru.nidi.graphviz.model.MutableGraph;
-import guru.nidi.graphviz.model.MutableNode;
-import java.util.*;
-
 public class BFSSearchStrategy implements SearchStrategy {
     @Override
-    public GraphPath findPath(MutableGraph graph, String srcLabel, String dstLabel) {
-        Map<String, String> parentMap = new HashMap<>();
-        Set<String> visited = new HashSet<>();
-        Queue<MutableNode> queue = new LinkedList<>();
-        
+    public GraphPath findPath(GraphSnapshot graph, String srcLabel, String dstLabel, SearchStats stats) {
+        return findPath(graph, srcLabel, dstLabel, stats, null);
+    }
+
+    @Override
+    public GraphPath findPath(GraphSnapshot graph, String srcLabel, String dstLabel, SearchStats stats,
+                              StronglyConnectedComponents components) {
         // Find source and destination nodes
-        MutableNode src = findNode(graph, srcLabel);
-        MutableNode dst = findNode(graph, dstLabel);
+        int src = graph.idOf(srcLabel);
+        int dst = graph.idOf(dstLabel);
         
-        if (src == null || dst == null) {
+        if (src < 0 || dst < 0) {
             throw new IllegalArgumentException("Source or destination node does not exist");
         }
+        int floor = components == null ? Integer.MIN_VALUE : components.component(dst);
         
-        queue.offer(src);
-        visited.add(srcLabel);
-        
-        while (!queue.isEmpty()) {
-            MutableNode current = queue.poll();
-            String currentLabel = current.name().toString();
+        SearchContext context = SearchContext.acquire(graph.nodeCount());
+        try {
+            int[] parent = context.parent;
+            int[] queue = context.queue;
+            int head = 0;
+            int tail = 0;
             
-            if (currentLabel.equals(dstLabel)) {
-                return constructPath(dstLabel, parentMap);
-            }
+            queue[tail++] = src;
+            context.visit(src);
+            parent[src] = -1;
             
-            for (Link link : current.links()) {
-                String neighborLabel = link.to().name().toString();
-                if (!visited.contains(neighborLabel)) {
-                    MutableNode neighbor = findNode(graph, neighborLabel);
-                    if (neighbor != null) {
-                        queue.offer(neighbor);
-                        visited.add(neighborLabel);
-                        parentMap.put(neighborLabel, currentLabel);
+            while (head < tail) {
+                stats.frontier(tail - head);
+                int current = queue[head++];
+                
+                if (current == dst) {
+                    GraphPath path = GraphPath.fromParents(graph, parent, dst);
+                    path.setExpandedNodes(head);
+                    return path;
+                }
+                
+                stats.expand(graph.degree(current));
+                for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                    int neighbor = graph.target(e);
+                    if ((components == null || components.component(neighbor) >= floor)
+                            && context.visit(neighbor)) {
+                        queue[tail++] = neighbor;
+                        parent[neighbor] = current;
                     }
                 }
             }
+            return null;
+        } finally {
+            context.release();
         }
-        return null;
-    }
-    
-    private MutableNode findNode(MutableGraph graph, String label) {
-        return graph.nodes().stream()
-                .filter(n -> n.name().toString().equals(label))
-                .findFirst()
-                .orElse(null);
-    }
-    
-    private GraphPath constructPath(String dstLabel, Map<String, String> parentMap) {
-        GraphPath path = new GraphPath();
-        String node = dstLabel;
-        while (node != null) {
-            path.addNode(node);
-            node = parentMap.get(node);
-        }
-        
-        GraphPath finalPath = new GraphPath();
-        List<String> nodes = path.getNodes();
-        for (int i = nodes.size() - 1; i >= 0; i--) {
-            finalPath.addNode(nodes.get(i));
-        }
-        return finalPath;
     }
-}
\ No newline at end of file
+}
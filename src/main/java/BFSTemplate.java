@@ -1,47 +1,39 @@
-import guru.nidi.graphviz.model.Link;
-import guru.nidi.graphviz.model.MutableGraph;
-import guru.nidi.graphviz.model.MutableNode;
-import java.util.*;
-
 public class BFSTemplate extends GraphSearchAlgorithm {
-    private Queue<MutableNode> queue;
+    private int[] queue;
+    private int head;
+    private int tail;
     
-    public BFSTemplate(MutableGraph graph) {
+    public BFSTemplate(GraphSnapshot graph) {
         super(graph);
     }
     
     @Override
-    protected void initializeSearch(MutableNode start, Set<String> visited, 
-                                  Map<String, String> parentMap) {
-        queue = new LinkedList<>();
-        queue.offer(start);
-        visited.add(start.name().toString());
+    protected void initializeSearch(int start, SearchContext context) {
+        queue = context.queue;
+        head = 0;
+        tail = 0;
+        queue[tail++] = start;
+        context.visit(start);
     }
     
     @Override
     protected boolean hasNextNode() {
-        return !queue.isEmpty();
+        return head < tail;
     }
     
     @Override
-    protected MutableNode getNextNode() {
-        return queue.poll();
+    protected int getNextNode() {
+        return queue[head++];
     }
     
     @Override
-    protected void processNeighbors(MutableNode current, Set<String> visited, 
-                                  Map<String, String> parentMap) {
-        String currentLabel = current.name().toString();
-        for (Link link : current.links()) {
-            String neighborLabel = link.to().name().toString();
-            if (!visited.contains(neighborLabel)) {
-                MutableNode neighbor = findNode(neighborLabel);
-                if (neighbor != null) {
-                    queue.offer(neighbor);
-                    visited.add(neighborLabel);
-                    parentMap.put(neighborLabel, currentLabel);
-                }
+    protected void processNeighbors(int current, SearchContext context) {
+        for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+            int neighbor = graph.target(e);
+            if (context.visit(neighbor)) {
+                queue[tail++] = neighbor;
+                context.parent[neighbor] = current;
             }
         }
     }
-}
\ No newline at end of file
+}
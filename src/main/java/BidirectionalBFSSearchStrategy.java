@@ -0,0 +1,121 @@
+// Meets in the middle: BFS forward from the source over out-edges and backward
+// from the destination over in-edges, always expanding the smaller frontier.
+// Per-node state lives in a pooled SearchContext, so a search costs only what it touches.
+public class BidirectionalBFSSearchStrategy implements SearchStrategy {
+    @Override
+    public GraphPath findPath(GraphSnapshot graph, String srcLabel, String dstLabel, SearchStats stats) {
+        // Find source and destination nodes
+        int src = graph.idOf(srcLabel);
+        int dst = graph.idOf(dstLabel);
+        
+        if (src < 0 || dst < 0) {
+            throw new IllegalArgumentException("Source or destination node does not exist");
+        }
+        
+        SearchContext context = SearchContext.acquire(graph.nodeCount());
+        try {
+            context.prepareBidirectional();
+            return search(graph, src, dst, stats, context);
+        } finally {
+            context.release();
+        }
+    }
+
+    private GraphPath search(GraphSnapshot graph, int src, int dst, SearchStats stats, SearchContext context) {
+        int[] distF = context.depth;
+        int[] distB = context.backDepth;
+        int[] parentF = context.parent;
+        int[] parentB = context.backParent;
+        int[] queueF = context.queue;
+        int[] queueB = context.backQueue;
+        
+        int headF = 0, tailF = 0, headB = 0, tailB = 0;
+        queueF[tailF++] = src;
+        context.visit(src);
+        distF[src] = 0;
+        parentF[src] = -1;
+        queueB[tailB++] = dst;
+        context.visitBackward(dst);
+        distB[dst] = 0;
+        parentB[dst] = -1;
+        
+        if (src == dst) {
+            GraphPath path = GraphPath.fromParents(graph, parentF, src);
+            path.setExpandedNodes(0);
+            return path;
+        }
+        
+        while (headF < tailF && headB < tailB) {
+            // Expand one whole level and keep the best meeting point found in it
+            int best = Integer.MAX_VALUE;
+            int meet = -1;
+            stats.frontier(tailF - headF + tailB - headB);
+            if (tailF - headF <= tailB - headB) {
+                int levelEnd = tailF;
+                while (headF < levelEnd) {
+                    int current = queueF[headF++];
+                    stats.expand(graph.degree(current));
+                    for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                        int neighbor = graph.target(e);
+                        if (context.visit(neighbor)) {
+                            distF[neighbor] = distF[current] + 1;
+                            parentF[neighbor] = current;
+                            queueF[tailF++] = neighbor;
+                            if (context.isVisitedBackward(neighbor) && distF[neighbor] + distB[neighbor] < best) {
+                                best = distF[neighbor] + distB[neighbor];
+                                meet = neighbor;
+                            }
+                        }
+                    }
+                }
+            } else {
+                int levelEnd = tailB;
+                while (headB < levelEnd) {
+                    int current = queueB[headB++];
+                    stats.expand(graph.inDegree(current));
+                    for (int e = graph.inEdgeStart(current), end = graph.inEdgeEnd(current); e < end; e++) {
+                        int neighbor = graph.source(e);
+                        if (context.visitBackward(neighbor)) {
+                            distB[neighbor] = distB[current] + 1;
+                            parentB[neighbor] = current;
+                            queueB[tailB++] = neighbor;
+                            if (context.isVisited(neighbor) && distF[neighbor] + distB[neighbor] < best) {
+                                best = distF[neighbor] + distB[neighbor];
+                                meet = neighbor;
+                            }
+                        }
+                    }
+                }
+            }
+            
+            if (meet >= 0) {
+                GraphPath path = splicePath(graph, parentF, parentB, meet);
+                path.setExpandedNodes(headF + headB);
+                return path;
+            }
+        }
+        return null;
+    }
+    
+    // Joins src -> meet (forward parents) with meet -> dst (backward parents)
+    private GraphPath splicePath(GraphSnapshot graph, int[] parentF, int[] parentB, int meet) {
+        int before = 0;
+        int after = 0;
+        for (int node = parentF[meet]; node != -1; node = parentF[node]) {
+            before++;
+        }
+        for (int node = parentB[meet]; node != -1; node = parentB[node]) {
+            after++;
+        }
+        int[] ids = new int[before + 1 + after];
+        int i = before;
+        for (int node = meet; node != -1; node = parentF[node]) {
+            ids[i--] = node;
+        }
+        i = before + 1;
+        for (int node = parentB[meet]; node != -1; node = parentB[node]) {
+            ids[i++] = node;
+        }
+        return GraphPath.of(graph, ids);
+    }
+}
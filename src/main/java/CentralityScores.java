@@ -0,0 +1,66 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// One score per node of the snapshot it was computed on, indexed by node id
+public final class CentralityScores {
+    public record RankedNode(String label, double score) {}
+
+    private final GraphSnapshot graph;
+    private final double[] scores;
+    private final int iterations;
+    private final boolean converged;
+
+    CentralityScores(GraphSnapshot graph, double[] scores, int iterations, boolean converged) {
+        this.graph = graph;
+        this.scores = scores;
+        this.iterations = iterations;
+        this.converged = converged;
+    }
+
+    public double getScore(String label) {
+        int node = graph.idOf(label);
+        if (node < 0) {
+            throw new IllegalArgumentException("Node does not exist: " + label);
+        }
+        return scores[node];
+    }
+
+    public double[] getScores() {
+        return scores.clone();
+    }
+
+    // Power iterations run; 0 for scores that are not iterative
+    public int getIterations() {
+        return iterations;
+    }
+
+    public boolean isConverged() {
+        return converged;
+    }
+
+    // The k highest-scoring nodes, best first (ties go to the earlier node)
+    public List<RankedNode> top(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative");
+        }
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.max(1, k), (a, b) -> scores[a] != scores[b]
+                ? Double.compare(scores[a], scores[b]) : Integer.compare(b, a));
+        for (int node = 0; node < scores.length && k > 0; node++) {
+            if (best.size() < k) {
+                best.add(node);
+            } else if (best.comparator().compare(node, best.peek()) > 0) {
+                best.poll();
+                best.add(node);
+            }
+        }
+        List<RankedNode> ranked = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            int node = best.poll();
+            ranked.add(new RankedNode(graph.label(node), scores[node]));
+        }
+        Collections.reverse(ranked);
+        return ranked;
+    }
+}
@@ -1,71 +1,78 @@
-import guru.nidi.graphviz.model.Link;
-import guru.nidi.graphviz.model.MutableGraph;
-import guru.nidi.graphviz.model.MutableNode;
-import java.util.*;
-
 public class DFSSearchStrategy implements SearchStrategy {
     @Override
-    public GraphPath findPath(MutableGraph graph, String srcLabel, String dstLabel) {
-        Map<String, String> parentMap = new HashMap<>();
-        Set<String> visited = new HashSet<>();
-        
+    public GraphPath findPath(GraphSnapshot graph, String srcLabel, String dstLabel, SearchStats stats) {
+        return findPath(graph, srcLabel, dstLabel, stats, null);
+    }
+
+    @Override
+    public GraphPath findPath(GraphSnapshot graph, String srcLabel, String dstLabel, SearchStats stats,
+                              StronglyConnectedComponents components) {
         // Find source and destination nodes
-        MutableNode src = findNode(graph, srcLabel);
-        MutableNode dst = findNode(graph, dstLabel);
+        int src = graph.idOf(srcLabel);
+        int dst = graph.idOf(dstLabel);
         
-        if (src == null || dst == null) {
+        if (src < 0 || dst < 0) {
             throw new IllegalArgumentException("Source or destination node does not exist");
         }
+        int floor = components == null ? Integer.MIN_VALUE : components.component(dst);
         
-        if (dfsSearch(graph, src, srcLabel, dstLabel, visited, parentMap)) {
-            return constructPath(dstLabel, parentMap);
+        SearchContext context = SearchContext.acquire(graph.nodeCount());
+        try {
+            int[] parent = context.parent;
+            parent[src] = -1;
+            int visited = dfsSearch(graph, src, dst, context, stats, components, floor);
+            if (visited > 0) {
+                GraphPath path = GraphPath.fromParents(graph, parent, dst);
+                path.setExpandedNodes(visited);
+                return path;
+            }
+            return null;
+        } finally {
+            context.release();
         }
-        return null;
     }
     
-    private boolean dfsSearch(MutableGraph graph, MutableNode current, String currentLabel, 
-                            String dstLabel, Set<String> visited, Map<String, String> parentMap) {
-        visited.add(currentLabel);
+    // Iterative form of the recursive walk: the stack holds the current path and each
+    // entry's cursor is the next out-edge to try, so nodes are visited in the same order.
+    // Returns the number of nodes visited when dst is reached, or 0 if it is not.
+    private int dfsSearch(GraphSnapshot graph, int src, int dst, SearchContext context, SearchStats stats,
+                          StronglyConnectedComponents components, int floor) {
+        int[] stack = context.queue;
+        int[] cursor = context.cursor;
+        int[] parent = context.parent;
+        int size = 0;
+        int visited = 1;
         
-        if (currentLabel.equals(dstLabel)) {
-            return true;
+        context.visit(src);
+        if (src == dst) {
+            return visited;
         }
+        stack[size] = src;
+        cursor[size++] = graph.edgeStart(src);
+        stats.frontier(size);
+        stats.expand(graph.degree(src));
         
-        for (Link link : current.links()) {
-            String neighborLabel = link.to().name().toString();
-            if (!visited.contains(neighborLabel)) {
-                MutableNode neighbor = findNode(graph, neighborLabel);
-                if (neighbor != null) {
-                    parentMap.put(neighborLabel, currentLabel);
-                    if (dfsSearch(graph, neighbor, neighborLabel, dstLabel, visited, parentMap)) {
-                        return true;
-                    }
+        while (size > 0) {
+            int current = stack[size - 1];
+            int e = cursor[size - 1];
+            if (e == graph.edgeEnd(current)) {
+                size--; // All neighbours tried: backtrack
+                continue;
+            }
+            cursor[size - 1] = e + 1;
+            int neighbor = graph.target(e);
+            if ((components == null || components.component(neighbor) >= floor) && context.visit(neighbor)) {
+                parent[neighbor] = current;
+                visited++;
+                if (neighbor == dst) {
+                    return visited;
                 }
+                stack[size] = neighbor;
+                cursor[size++] = graph.edgeStart(neighbor);
+                stats.frontier(size);
+                stats.expand(graph.degree(neighbor));
             }
         }
-        return false;
-    }
-    
-    private MutableNode findNode(MutableGraph graph, String label) {
-        return graph.nodes().stream()
-                .filter(n -> n.name().toString().equals(label))
-                .findFirst()
-                .orElse(null);
-    }
-    
-    private GraphPath constructPath(String dstLabel, Map<String, String> parentMap) {
-        GraphPath path = new GraphPath();
-        String node = dstLabel;
-        while (node != null) {
-            path.addNode(node);
-            node = parentMap.get(node);
-        }
-        
-        GraphPath finalPath = new GraphPath();
-        List<String> nodes = path.getNodes();
-        for (int i = nodes.size() - 1; i >= 0; i--) {
-            finalPath.addNode(nodes.get(i));
-        }
-        return finalPath;
+        return 0;
     }
-}
\ No newline at end of file
+}
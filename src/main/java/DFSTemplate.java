@@ -1,47 +1,38 @@
-import guru.nidi.graphviz.model.Link;
-import guru.nidi.graphviz.model.MutableGraph;
-import guru.nidi.graphviz.model.MutableNode;
-import java.util.*;
-
 public class DFSTemplate extends GraphSearchAlgorithm {
-    private Stack<MutableNode> stack;
+    private int[] stack;
+    private int size;
     
-    public DFSTemplate(MutableGraph graph) {
+    public DFSTemplate(GraphSnapshot graph) {
         super(graph);
     }
     
     @Override
-    protected void initializeSearch(MutableNode start, Set<String> visited, 
-                                  Map<String, String> parentMap) {
-        stack = new Stack<>();
-        stack.push(start);
-        visited.add(start.name().toString());
+    protected void initializeSearch(int start, SearchContext context) {
+        // Every node is pushed at most once because it is marked visited on push
+        stack = context.queue;
+        size = 0;
+        stack[size++] = start;
+        context.visit(start);
     }
     
     @Override
     protected boolean hasNextNode() {
-        return !stack.isEmpty();
+        return size > 0;
     }
     
     @Override
-    protected MutableNode getNextNode() {
-        return stack.pop();
+    protected int getNextNode() {
+        return stack[--size];
     }
     
     @Override
-    protected void processNeighbors(MutableNode current, Set<String> visited, 
-                                  Map<String, String> parentMap) {
-        String currentLabel = current.name().toString();
-        for (Link link : current.links()) {
-            String neighborLabel = link.to().name().toString();
-            if (!visited.contains(neighborLabel)) {
-                MutableNode neighbor = findNode(neighborLabel);
-                if (neighbor != null) {
-                    stack.push(neighbor);
-                    visited.add(neighborLabel);
-                    parentMap.put(neighborLabel, currentLabel);
-                }
+    protected void processNeighbors(int current, SearchContext context) {
+        for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+            int neighbor = graph.target(e);
+            if (context.visit(neighbor)) {
+                stack[size++] = neighbor;
+                context.parent[neighbor] = current;
             }
         }
     }
-}
\ No newline at end of file
+}
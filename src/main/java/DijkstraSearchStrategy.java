@@ -0,0 +1,75 @@
+// Weighted shortest path over the snapshot's edge weights (DOT weight/len, default 1).
+// Distances and the queue live in a pooled SearchContext; a node's distance is only
+// read once the node is visited, so nothing is filled per search.
+public class DijkstraSearchStrategy implements SearchStrategy {
+    @Override
+    public GraphPath findPath(GraphSnapshot graph, String srcLabel, String dstLabel, SearchStats stats) {
+        return findPath(graph, srcLabel, dstLabel, stats, null);
+    }
+
+    @Override
+    public GraphPath findPath(GraphSnapshot graph, String srcLabel, String dstLabel, SearchStats stats,
+                              StronglyConnectedComponents components) {
+        // Find source and destination nodes
+        int src = graph.idOf(srcLabel);
+        int dst = graph.idOf(dstLabel);
+        
+        if (src < 0 || dst < 0) {
+            throw new IllegalArgumentException("Source or destination node does not exist");
+        }
+        int floor = components == null ? Integer.MIN_VALUE : components.component(dst);
+        
+        SearchContext context = SearchContext.acquire(graph.nodeCount());
+        try {
+            return search(graph, src, dst, stats, components, floor, context);
+        } finally {
+            context.release();
+        }
+    }
+
+    private GraphPath search(GraphSnapshot graph, int src, int dst, SearchStats stats,
+                             StronglyConnectedComponents components, int floor, SearchContext context) {
+        IndexedMinHeap queue = context.prepareWeighted();
+        double[] dist = context.distance;
+        int[] parent = context.parent;
+        
+        context.visit(src);
+        dist[src] = 0;
+        parent[src] = -1;
+        queue.insertOrDecrease(src, 0);
+        int expanded = 0;
+        
+        while (!queue.isEmpty()) {
+            stats.frontier(queue.size());
+            int current = queue.pollMin();
+            expanded++;
+            
+            if (current == dst) {
+                GraphPath path = GraphPath.fromParents(graph, parent, dst);
+                path.setCost(dist[dst]);
+                path.setExpandedNodes(expanded);
+                return path;
+            }
+            
+            stats.expand(graph.degree(current));
+            for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                double weight = graph.weight(e);
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Negative edge weight from " + graph.label(current)
+                            + " to " + graph.label(graph.target(e)) + ": " + weight);
+                }
+                int neighbor = graph.target(e);
+                if (components != null && components.component(neighbor) < floor) {
+                    continue;
+                }
+                double candidate = dist[current] + weight;
+                if (context.visit(neighbor) || candidate < dist[neighbor]) {
+                    dist[neighbor] = candidate;
+                    parent[neighbor] = current;
+                    queue.insertOrDecrease(neighbor, candidate);
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,286 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Parallel loader for plain edge lists: one "src dst [weight]" edge per line,
+// fields separated by spaces, tabs or commas, blank lines and lines starting
+// with '#' or '%' ignored. The file is cut into chunks at line boundaries and
+// each chunk is parsed on its own thread with a private label dictionary.
+// The chunk dictionaries are then merged in file order, so node ids match a
+// sequential load, and all edges go into a GraphSnapshotBuilder in bulk.
+public class EdgeListImporter {
+    private static final int MIN_CHUNK_SIZE = 4 << 20;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private EdgeListImporter() {
+    }
+
+    public static GraphSnapshot load(Path path) throws IOException {
+        return load(path, ForkJoinPool.commonPool());
+    }
+
+    public static GraphSnapshot load(Path path, ForkJoinPool pool) throws IOException {
+        return load(path, pool, MIN_CHUNK_SIZE);
+    }
+
+    static GraphSnapshot load(Path path, ForkJoinPool pool, long minChunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, pool.getParallelism(), minChunkSize);
+            List<Future<Chunk>> futures = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                Chunk chunk = new Chunk(channel, bounds[i], bounds[i + 1]);
+                futures.add(pool.submit(() -> {
+                    try {
+                        chunk.parse();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // ForkJoinPool would wrap it anonymously
+                    }
+                    return chunk;
+                }));
+            }
+            Chunk[] chunks = new Chunk[futures.size()];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = await(futures.get(i));
+            }
+            return merge(chunks, pool);
+        }
+    }
+
+    // Splits the file into roughly equal ranges that each start at the beginning of a line
+    private static long[] chunkBounds(FileChannel channel, int parallelism, long minChunkSize) throws IOException {
+        long size = channel.size();
+        int count = (int) Math.max(1, Math.min(size / minChunkSize, parallelism * 4L));
+        long[] bounds = new long[count + 1];
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (int i = 1; i < count; i++) {
+            long position = Math.max(bounds[i - 1], size * i / count);
+            bounds[i] = nextLineStart(channel, position, probe);
+        }
+        bounds[count] = size;
+        return bounds;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, ByteBuffer probe) throws IOException {
+        while (true) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    // Assigns global ids chunk by chunk, then rewrites each chunk's edges in parallel
+    private static GraphSnapshot merge(Chunk[] chunks, ForkJoinPool pool) throws IOException {
+        LabelDictionary global = new LabelDictionary();
+        GraphSnapshotBuilder builder = new GraphSnapshotBuilder();
+        List<Future<?>> remaps = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            int[] mapping = new int[chunk.labels.size()];
+            for (int local = 0; local < mapping.length; local++) {
+                byte[] key = chunk.labels.key(local);
+                int id = global.idOf(key, 0, key.length);
+                if (id == builder.nodeCount()) {
+                    builder.addNode(global.label(id));
+                }
+                mapping[local] = id;
+            }
+            remaps.add(pool.submit(() -> chunk.remap(mapping)));
+        }
+        for (Future<?> remap : remaps) {
+            await(remap);
+        }
+        for (Chunk chunk : chunks) {
+            builder.addEdges(chunk.sources, chunk.targets, chunk.weights, chunk.edgeCount);
+        }
+        return builder.build();
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Edge list import interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    // Parses one byte range into chunk-local ids
+    private static final class Chunk {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        final LabelDictionary labels = new LabelDictionary();
+        int[] sources = new int[1024];
+        int[] targets = new int[1024];
+        double[] weights; // Allocated on the first non-default weight
+        int edgeCount;
+
+        private final int[] fieldStarts = new int[3];
+        private final int[] fieldEnds = new int[3];
+
+        Chunk(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        void parse() throws IOException {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long position = start;
+            int carried = 0;
+            while (position < end || carried > 0) {
+                int want = (int) Math.min(buffer.length - carried, end - position);
+                int read = 0;
+                while (read < want) {
+                    int n = channel.read(ByteBuffer.wrap(buffer, carried + read, want - read), position + read);
+                    if (n < 0) {
+                        break;
+                    }
+                    read += n;
+                }
+                position += read;
+                int limit = carried + read;
+                boolean last = position >= end || read < want;
+
+                int lineStart = 0;
+                for (int i = 0; i < limit; i++) {
+                    if (buffer[i] == '\n') {
+                        parseLine(buffer, lineStart, i, position - limit + lineStart);
+                        lineStart = i + 1;
+                    }
+                }
+                if (last) {
+                    if (lineStart < limit) {
+                        parseLine(buffer, lineStart, limit, position - limit + lineStart);
+                    }
+                    break;
+                }
+                carried = limit - lineStart;
+                if (carried == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2); // Line longer than the buffer
+                } else {
+                    System.arraycopy(buffer, lineStart, buffer, 0, carried);
+                }
+            }
+        }
+
+        private void parseLine(byte[] bytes, int from, int to, long fileOffset) throws IOException {
+            int fields = 0;
+            int i = from;
+            while (true) {
+                while (i < to && isSeparator(bytes[i])) {
+                    i++;
+                }
+                if (i == to) {
+                    break;
+                }
+                if (fields == 0 && (bytes[i] == '#' || bytes[i] == '%')) {
+                    return; // Comment line
+                }
+                if (fields == 3) {
+                    throw malformed(fileOffset, "expected 'src dst [weight]'");
+                }
+                fieldStarts[fields] = i;
+                while (i < to && !isSeparator(bytes[i])) {
+                    i++;
+                }
+                fieldEnds[fields++] = i;
+            }
+            if (fields == 0) {
+                return;
+            }
+            if (fields == 1) {
+                throw malformed(fileOffset, "expected 'src dst [weight]'");
+            }
+            int src = labels.idOf(bytes, fieldStarts[0], fieldEnds[0] - fieldStarts[0]);
+            int dst = labels.idOf(bytes, fieldStarts[1], fieldEnds[1] - fieldStarts[1]);
+            double weight = fields == 3
+                    ? number(bytes, fieldStarts[2], fieldEnds[2], fileOffset) : GraphSnapshot.DEFAULT_WEIGHT;
+            add(src, dst, weight);
+        }
+
+        private void add(int src, int dst, double weight) {
+            if (edgeCount == sources.length) {
+                sources = Arrays.copyOf(sources, edgeCount * 2);
+                targets = Arrays.copyOf(targets, edgeCount * 2);
+                if (weights != null) {
+                    weights = Arrays.copyOf(weights, edgeCount * 2);
+                }
+            }
+            if (weights == null && weight != GraphSnapshot.DEFAULT_WEIGHT) {
+                weights = new double[sources.length];
+                Arrays.fill(weights, 0, edgeCount, GraphSnapshot.DEFAULT_WEIGHT);
+            }
+            sources[edgeCount] = src;
+            targets[edgeCount] = dst;
+            if (weights != null) {
+                weights[edgeCount] = weight;
+            }
+            edgeCount++;
+        }
+
+        void remap(int[] mapping) {
+            for (int e = 0; e < edgeCount; e++) {
+                sources[e] = mapping[sources[e]];
+                targets[e] = mapping[targets[e]];
+            }
+        }
+
+        // Plain integers are parsed in place; anything else goes through Double.parseDouble
+        private static double number(byte[] bytes, int from, int to, long fileOffset) throws IOException {
+            if (to - from < 10) {
+                long value = 0;
+                int i = from;
+                boolean negative = bytes[i] == '-';
+                if (negative) {
+                    i++;
+                }
+                while (i < to && bytes[i] >= '0' && bytes[i] <= '9') {
+                    value = value * 10 + (bytes[i++] - '0');
+                }
+                if (i == to && i > (negative ? from + 1 : from)) {
+                    return negative ? -value : value;
+                }
+            }
+            String text = new String(bytes, from, to - from, StandardCharsets.US_ASCII);
+            try {
+                return Double.parseDouble(text);
+            } catch (NumberFormatException e) {
+                throw malformed(fileOffset, "invalid weight '" + text + "'");
+            }
+        }
+
+        private static boolean isSeparator(byte b) {
+            return b == ' ' || b == '\t' || b == ',' || b == '\r';
+        }
+
+        private static IOException malformed(long fileOffset, String message) {
+            return new IOException("Line at byte " + fileOffset + ": " + message);
+        }
+    }
+}
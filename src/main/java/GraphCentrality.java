@@ -0,0 +1,268 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+// Node ranking over a CSR snapshot. PageRank is a pull-style power iteration: each
+// node sums rank/out-degree over its in-edges, so every thread writes only its own
+// slice of the next rank vector and no atomics are needed. Nodes are split into
+// fixed chunks and per-chunk partial sums are added in chunk order, which keeps
+// results identical across pool sizes. Edge weights are ignored (they are costs here).
+public class GraphCentrality {
+    private static final int MIN_CHUNK = 4096;
+
+    private final GraphSnapshot graph;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int chunkCount;
+
+    public GraphCentrality(GraphSnapshot graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public GraphCentrality(GraphSnapshot graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        int n = graph.nodeCount();
+        this.chunkSize = Math.max(MIN_CHUNK, (n + pool.getParallelism() * 8 - 1) / (pool.getParallelism() * 8));
+        this.chunkCount = Math.max(1, (n + chunkSize - 1) / chunkSize);
+    }
+
+    public CentralityScores pageRank(double damping, double tolerance, int maxIterations) {
+        return powerIteration(damping, tolerance, maxIterations, null);
+    }
+
+    // PageRank whose random jumps (and dangling-node mass) all land on the seed nodes
+    public CentralityScores personalizedPageRank(Collection<String> seeds, double damping, double tolerance,
+                                                 int maxIterations) {
+        if (seeds == null || seeds.isEmpty()) {
+            throw new IllegalArgumentException("At least one seed node is required");
+        }
+        double[] teleport = new double[graph.nodeCount()];
+        for (String seed : seeds) {
+            int node = graph.idOf(seed);
+            if (node < 0) {
+                throw new IllegalArgumentException("Node does not exist: " + seed);
+            }
+            teleport[node] = 1;
+        }
+        double total = 0;
+        for (double t : teleport) {
+            total += t;
+        }
+        for (int i = 0; i < teleport.length; i++) {
+            teleport[i] /= total;
+        }
+        return powerIteration(damping, tolerance, maxIterations, teleport);
+    }
+
+    // (in-degree + out-degree) / (n - 1)
+    public CentralityScores degreeCentrality() {
+        int n = graph.nodeCount();
+        double[] scores = new double[n];
+        double scale = n > 1 ? 1.0 / (n - 1) : 0;
+        forEachChunk((chunk, lo, hi) -> {
+            for (int node = lo; node < hi; node++) {
+                scores[node] = (graph.degree(node) + graph.inDegree(node)) * scale;
+            }
+        });
+        return new CentralityScores(graph, scores, 0, true);
+    }
+
+    // Brandes' algorithm from a random sample of source nodes (all of them when samples >= n),
+    // scaled by n / samples so scores estimate the number of shortest paths through each node
+    public CentralityScores betweenness(int samples, long seed) {
+        if (samples <= 0) {
+            throw new IllegalArgumentException("Sample count must be positive");
+        }
+        int n = graph.nodeCount();
+        int[] sources = new int[n];
+        for (int i = 0; i < n; i++) {
+            sources[i] = i;
+        }
+        int k = Math.min(samples, n);
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < k && k < n; i++) {
+            int j = i + random.nextInt(n - i);
+            int swap = sources[i];
+            sources[i] = sources[j];
+            sources[j] = swap;
+        }
+
+        int parts = Math.min(k, pool.getParallelism() * 2);
+        List<ForkJoinTask<double[]>> tasks = new ArrayList<>(parts);
+        for (int p = 0; p < parts; p++) {
+            int lo = (int) ((long) k * p / parts);
+            int hi = (int) ((long) k * (p + 1) / parts);
+            tasks.add(pool.submit(() -> brandes(sources, lo, hi)));
+        }
+        double[] scores = new double[n];
+        double scale = k == 0 ? 0 : (double) n / k;
+        for (ForkJoinTask<double[]> task : tasks) {
+            double[] partial = task.join();
+            for (int node = 0; node < n; node++) {
+                scores[node] += partial[node];
+            }
+        }
+        for (int node = 0; node < n; node++) {
+            scores[node] *= scale;
+        }
+        return new CentralityScores(graph, scores, 0, true);
+    }
+
+    private CentralityScores powerIteration(double damping, double tolerance, int maxIterations, double[] teleport) {
+        if (!(damping >= 0 && damping < 1)) {
+            throw new IllegalArgumentException("Damping factor must be in [0, 1): " + damping);
+        }
+        if (!(tolerance > 0) || maxIterations <= 0) {
+            throw new IllegalArgumentException("Tolerance and iteration limit must be positive");
+        }
+        int n = graph.nodeCount();
+        double uniform = n == 0 ? 0 : 1.0 / n;
+        double[] rank = new double[n];
+        for (int node = 0; node < n; node++) {
+            rank[node] = teleport == null ? uniform : teleport[node];
+        }
+        double[] next = new double[n];
+        double[] contribution = new double[n];
+        double[] partial = new double[chunkCount];
+
+        for (int iteration = 1; iteration <= maxIterations; iteration++) {
+            // Spread each node's rank over its out-edges; dangling nodes jump like a teleport
+            double[] current = rank;
+            forEachChunk((chunk, lo, hi) -> {
+                double dangling = 0;
+                for (int node = lo; node < hi; node++) {
+                    int degree = graph.degree(node);
+                    if (degree == 0) {
+                        dangling += current[node];
+                        contribution[node] = 0;
+                    } else {
+                        contribution[node] = current[node] / degree;
+                    }
+                }
+                partial[chunk] = dangling;
+            });
+            double dangling = sum(partial);
+
+            double[] target = next;
+            forEachChunk((chunk, lo, hi) -> {
+                double change = 0;
+                for (int node = lo; node < hi; node++) {
+                    double incoming = 0;
+                    for (int e = graph.inEdgeStart(node), end = graph.inEdgeEnd(node); e < end; e++) {
+                        incoming += contribution[graph.source(e)];
+                    }
+                    double jump = teleport == null ? uniform : teleport[node];
+                    target[node] = (1 - damping) * jump + damping * (incoming + dangling * jump);
+                    change += Math.abs(target[node] - current[node]);
+                }
+                partial[chunk] = change;
+            });
+            next = rank;
+            rank = target;
+            if (sum(partial) < tolerance) {
+                return new CentralityScores(graph, rank, iteration, true);
+            }
+        }
+        return new CentralityScores(graph, rank, maxIterations, false);
+    }
+
+    // Accumulates pair dependencies from sources[lo..hi) into a fresh score array
+    private double[] brandes(int[] sources, int lo, int hi) {
+        int n = graph.nodeCount();
+        double[] scores = new double[n];
+        int[] dist = new int[n];
+        double[] sigma = new double[n];
+        double[] delta = new double[n];
+        int[] order = new int[n]; // BFS queue, later walked backwards as Brandes' stack
+        Arrays.fill(dist, -1);
+
+        for (int i = lo; i < hi; i++) {
+            int source = sources[i];
+            int head = 0;
+            int tail = 0;
+            order[tail++] = source;
+            dist[source] = 0;
+            sigma[source] = 1;
+            while (head < tail) {
+                int current = order[head++];
+                for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                    int neighbor = graph.target(e);
+                    if (dist[neighbor] < 0) {
+                        dist[neighbor] = dist[current] + 1;
+                        order[tail++] = neighbor;
+                    }
+                    if (dist[neighbor] == dist[current] + 1) {
+                        sigma[neighbor] += sigma[current];
+                    }
+                }
+            }
+            for (int j = tail - 1; j > 0; j--) {
+                int node = order[j];
+                for (int e = graph.inEdgeStart(node), end = graph.inEdgeEnd(node); e < end; e++) {
+                    int predecessor = graph.source(e);
+                    if (dist[predecessor] == dist[node] - 1) {
+                        delta[predecessor] += sigma[predecessor] / sigma[node] * (1 + delta[node]);
+                    }
+                }
+                scores[node] += delta[node];
+            }
+            // Only the nodes this BFS reached need resetting
+            for (int j = 0; j < tail; j++) {
+                int node = order[j];
+                dist[node] = -1;
+                sigma[node] = 0;
+                delta[node] = 0;
+            }
+        }
+        return scores;
+    }
+
+    private static double sum(double[] values) {
+        double total = 0;
+        for (double value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    private interface ChunkBody {
+        void run(int chunk, int lo, int hi);
+    }
+
+    private void forEachChunk(ChunkBody body) {
+        if (chunkCount == 1) {
+            body.run(0, 0, graph.nodeCount());
+        } else {
+            pool.invoke(new Chunks(body, 0, chunkCount));
+        }
+    }
+
+    private final class Chunks extends RecursiveAction {
+        private final ChunkBody body;
+        private final int lo;
+        private final int hi;
+
+        Chunks(ChunkBody body, int lo, int hi) {
+            this.body = body;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Chunks(body, lo, mid), new Chunks(body, mid, hi));
+                return;
+            }
+            int start = lo * chunkSize;
+            body.run(lo, start, Math.min(graph.nodeCount(), start + chunkSize));
+        }
+    }
+}
@@ -1,26 +1,105 @@
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import guru.nidi.graphviz.model.Link;
-import guru.nidi.graphviz.model.MutableGraph;
-import guru.nidi.graphviz.model.MutableNode;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
 
 public class GraphFileHandler {
+    private static final int BUFFER_SIZE = 1 << 16;
+
     public static void writeToFile(String content, String filePath) throws IOException {
         File outputFile = new File(filePath);
         Files.writeString(outputFile.toPath(), content);
     }
 
-    public static String generateDOTFormat(MutableGraph graph) {
-        StringBuilder dotFormat = new StringBuilder("digraph {\n");
-        for (MutableNode node : graph.nodes()) {
-            for (Link link : node.links()) {
-                dotFormat.append(String.format("  \"%s\" -> \"%s\"\n", 
-                    node.name().toString(), 
-                    link.to().name().toString()));
+    // Streams the graph to a file, gzip-compressed if requested
+    public static void writeDOTFile(GraphSnapshot graph, Path path, boolean gzip) throws IOException {
+        try (OutputStream file = Files.newOutputStream(path);
+             OutputStream stream = gzip ? new GZIPOutputStream(file, BUFFER_SIZE) : file;
+             Writer out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            writeDOT(graph, out);
+        }
+    }
+
+    public static String generateDOTFormat(GraphSnapshot graph) {
+        StringWriter out = new StringWriter();
+        try {
+            writeDOT(graph, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringWriter does not throw
+        }
+        return out.toString();
+    }
+
+    // Writes one statement per edge, plus node statements for isolated nodes and
+    // nodes with a position. Labels are quoted and escaped once per node, not per edge.
+    public static void writeDOT(GraphSnapshot graph, Writer out) throws IOException {
+        int n = graph.nodeCount();
+        String[] quoted = new String[n];
+        for (int i = 0; i < n; i++) {
+            quoted[i] = quote(graph.label(i));
+        }
+
+        out.write("digraph {\n");
+        for (int node = 0; node < n; node++) {
+            boolean positioned = graph.hasPosition(node);
+            if (positioned || (graph.degree(node) == 0 && graph.inDegree(node) == 0)) {
+                out.write("  ");
+                out.write(quoted[node]);
+                if (positioned) {
+                    out.write(" [pos=\"");
+                    out.write(Double.toString(graph.x(node)));
+                    out.write(',');
+                    out.write(Double.toString(graph.y(node)));
+                    out.write("\"]");
+                }
+                out.write('\n');
+            }
+        }
+        for (int node = 0; node < n; node++) {
+            for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+                out.write("  ");
+                out.write(quoted[node]);
+                out.write(" -> ");
+                out.write(quoted[graph.target(e)]);
+                double weight = graph.weight(e);
+                if (weight != GraphSnapshot.DEFAULT_WEIGHT) {
+                    out.write(" [weight=");
+                    out.write(Double.toString(weight));
+                    out.write(']');
+                }
+                out.write('\n');
+            }
+        }
+        out.write("}\n");
+    }
+
+    // DOT quoted strings treat \" as a quote and backslash-newline as a line continuation;
+    // any other backslash is literal (so \\ is two backslashes, not an escape). A backslash
+    // at the end of the label or before a newline therefore gets a continuation after it,
+    // which keeps it from escaping the closing quote or swallowing the newline.
+    static String quote(String label) {
+        if (label.indexOf('"') < 0 && label.indexOf('\\') < 0) {
+            return "\"" + label + "\"";
+        }
+        StringBuilder quoted = new StringBuilder(label.length() + 8).append('"');
+        for (int i = 0; i < label.length(); i++) {
+            char c = label.charAt(i);
+            if (c == '"') {
+                quoted.append("\\\"");
+                continue;
+            }
+            quoted.append(c);
+            if (c == '\\' && (i + 1 == label.length() || label.charAt(i + 1) == '\n')) {
+                quoted.append("\\\n");
             }
         }
-        dotFormat.append("}\n");
-        return dotFormat.toString();
+        return quoted.append('"').toString();
     }
-}
\ No newline at end of file
+}
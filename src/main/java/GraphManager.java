@@ -1,37 +1,209 @@
 import guru.nidi.graphviz.engine.Format;
 import guru.nidi.graphviz.engine.Graphviz;
 import guru.nidi.graphviz.model.Link;
+import guru.nidi.graphviz.model.LinkTarget;
 import guru.nidi.graphviz.model.MutableGraph;
 import guru.nidi.graphviz.model.MutableNode;
+import guru.nidi.graphviz.model.PortNode;
 import guru.nidi.graphviz.parse.Parser;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static guru.nidi.graphviz.model.Factory.mutGraph;
 import static guru.nidi.graphviz.model.Factory.mutNode;
 
+// Thread-safe with a single-writer, many-reader model. Mutations and anything that
+// reads the MutableNode state are synchronized on the manager. Searches never lock:
+// they take the published immutable snapshot and traverse it, so they always see one
+// consistent version. A mutation publishes its version as the changes made since the
+// last built snapshot, which costs the writer only the change itself; the first search
+// of a version applies them, once, without holding the manager's lock.
 public class GraphManager {
+    // Rendering view of the graph; null after a removal until graph() rebuilds it
     private MutableGraph graph;
-    private final Map<Algorithm, SearchStrategy> searchStrategies;
+    // Read by searches without locking, so it is replaced rather than modified
+    private volatile Map<Algorithm, SearchStrategy> searchStrategies;
+    // CSR view used by every search, with the version it was built from
+    private volatile Published published;
+    // Hash indexes kept in step with the graph so mutations never scan it
+    private final Map<String, MutableNode> nodeIndex = new LinkedHashMap<>();
+    private final Set<Edge> edgeIndex = new HashSet<>();
+    // Reverse adjacency (label -> source labels) so removals only touch a node's neighbours
+    private final Map<String, Set<String>> inEdges = new HashMap<>();
+    // Other nodes the parser created for an indexed label (e.g. inside a subgraph). They stay
+    // in the parsed model, which renders them where they were declared, and their links
+    // count as edges of the label.
+    private final Map<String, List<MutableNode>> aliases = new HashMap<>();
+
+    private record Edge(String from, String to) {}
+
+    private static final String JOURNAL_FILE = "journal.wal";
+    private static final long DEFAULT_CHECKPOINT_BYTES = 64L << 20;
+
+    // One published version: the last snapshot built plus the changes made since. The
+    // snapshot is built from them on first use, under this object's lock rather than the
+    // manager's, so concurrent searches of the version share one build.
+    private static final class Published {
+        private static final MutationJournal.Entry[] NO_CHANGES = {};
+
+        private final long version;
+        private final GraphSnapshot base;
+        private final MutationJournal.Entry[] changes; // Later versions may append past changeCount
+        private final int changeCount;
+        private volatile GraphSnapshot snapshot;
+        private volatile CompletableFuture<StronglyConnectedComponents> components;
+        private volatile ReachabilityIndex reachability; // Built by the first isReachable call
+
+        Published(GraphSnapshot snapshot, long version) {
+            this(snapshot, NO_CHANGES, 0, version);
+        }
+
+        private Published(GraphSnapshot base, MutationJournal.Entry[] changes, int changeCount, long version) {
+            this.version = version;
+            this.base = base;
+            this.changes = changes;
+            this.changeCount = changeCount;
+            this.snapshot = changeCount == 0 ? base : null;
+        }
+
+        long version() {
+            return version;
+        }
+
+        GraphSnapshot snapshot() {
+            GraphSnapshot current = snapshot;
+            if (current == null) {
+                synchronized (this) {
+                    current = snapshot;
+                    if (current == null) {
+                        current = base.withChanges(Arrays.asList(changes).subList(0, changeCount));
+                        snapshot = current;
+                    }
+                }
+            }
+            return current;
+        }
+
+        // Components of this version, computed once in the background by the first caller
+        CompletableFuture<StronglyConnectedComponents> components() {
+            CompletableFuture<StronglyConnectedComponents> future = components;
+            if (future == null) {
+                synchronized (this) {
+                    future = components;
+                    if (future == null) {
+                        GraphSnapshot graph = snapshot();
+                        future = CompletableFuture.supplyAsync(() -> new StronglyConnectedComponents(graph));
+                        components = future;
+                    }
+                }
+            }
+            return future;
+        }
+
+        ReachabilityIndex reachability() {
+            ReachabilityIndex index = reachability;
+            if (index == null) {
+                StronglyConnectedComponents scc = components().join(); // Not under this lock
+                synchronized (this) {
+                    index = reachability;
+                    if (index == null) {
+                        index = new ReachabilityIndex(scc);
+                        reachability = index;
+                    }
+                }
+            }
+            return index;
+        }
+
+        // The next version: these changes on top of this one, starting from this version's
+        // snapshot if it has been built. Only the newest version may be extended, since the
+        // change array is shared with it.
+        Published then(List<MutationJournal.Entry> applied, long nextVersion) {
+            GraphSnapshot built = snapshot;
+            MutationJournal.Entry[] log = built != null ? NO_CHANGES : changes;
+            int count = built != null ? 0 : changeCount;
+            if (count + applied.size() > log.length) {
+                log = Arrays.copyOf(log, Math.max(16, Math.max(count + applied.size(), log.length * 2)));
+            }
+            for (MutationJournal.Entry change : applied) {
+                log[count++] = change;
+            }
+            return new Published(built != null ? built : base, log, count, nextVersion);
+        }
+
+        // Once the changes outnumber the nodes and edges they apply to, the writer folds them
+        // in itself: that bounds their memory and costs O(1) per change amortized
+        boolean hasBacklog() {
+            return changeCount > Math.max(1024, base.nodeCount() + base.edgeCount());
+        }
+    }
+
+    // Bumped by every mutation; cached search results are only valid for the version they saw
+    private volatile long version;
+    private volatile PathCache pathCache;
+    // Always on: every executed search (not cache hits) is timed and counted here
+    private final SearchMetrics searchMetrics = new SearchMetrics();
+    // Write-ahead log of mutations and the directory holding it and its checkpoints; null when off
+    private MutationJournal journal;
+    private Path journalDirectory;
+    private long checkpointBytes;
+    // Set while a batch is applied, so its changes count as one version
+    private boolean deferChanges;
+    // Set after a streaming load: the graph exists only as this snapshot and the
+    // MutableNode indexes stay empty until a mutation or rendering needs them
+    private GraphSnapshot unmaterialized;
 
     public GraphManager() {
         this.graph = mutGraph("graph").setDirected(true);
-        this.searchStrategies = new EnumMap<>(Algorithm.class);
-        searchStrategies.put(Algorithm.BFS, new BFSSearchStrategy());
-        searchStrategies.put(Algorithm.DFS, new DFSSearchStrategy());
-        searchStrategies.put(Algorithm.RANDOM_WALK, new RandomWalkSearchStrategy());  // Add this line
+        Map<Algorithm, SearchStrategy> strategies = new EnumMap<>(Algorithm.class);
+        strategies.put(Algorithm.BFS, new BFSSearchStrategy());
+        strategies.put(Algorithm.DFS, new DFSSearchStrategy());
+        strategies.put(Algorithm.RANDOM_WALK, new RandomWalkSearchStrategy());  // Add this line
+        strategies.put(Algorithm.BIDIRECTIONAL_BFS, new BidirectionalBFSSearchStrategy());
+        strategies.put(Algorithm.DIJKSTRA, new DijkstraSearchStrategy());
+        strategies.put(Algorithm.A_STAR, new AStarSearchStrategy());
+        strategies.put(Algorithm.PARALLEL_BFS, new ParallelBFSSearchStrategy());
+        this.searchStrategies = strategies;
+        this.published = new Published(GraphSnapshot.of(List.of()), version);
     }
 
     // Feature 1: Parse a DOT graph file to create a graph
-    public boolean parseGraph(String filepath) {
+    public synchronized boolean parseGraph(String filepath) {
         try {
             File dotFile = new File(filepath);
             System.out.println("Parsing file: " + filepath);
             this.graph = new Parser().read(dotFile);
+            this.unmaterialized = null;
+            reindex();
+            graphChanged();
+            publish(GraphSnapshot.of(nodeIndex.values(), this::linksOf));
+            checkpointAfterLoad();
             System.out.println("Parsed graph: " + this.graph);
             return true;
         } catch (IOException e) {
@@ -41,67 +213,414 @@ public class GraphManager {
         }
     }
 
+    // Feature 1: Stream a large DOT file straight into the compact snapshot without
+    // building a MutableGraph (see StreamingDotParser for the supported subset)
+    public synchronized boolean parseGraphStreaming(String filepath) {
+        try {
+            replaceWithSnapshot(StreamingDotParser.parse(Path.of(filepath)));
+            checkpointAfterLoad();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error parsing graph: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Feature 1: Bulk-load a "src dst [weight]" edge list, parsing chunks of the file in parallel
+    public synchronized boolean importEdgeList(String filepath) {
+        try {
+            replaceWithSnapshot(EdgeListImporter.load(Path.of(filepath)));
+            checkpointAfterLoad();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error importing edge list: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Feature 1: Save the graph in the binary snapshot format for fast startup
+    public boolean saveSnapshot(String filepath) {
+        try {
+            GraphSnapshotFile.write(getSnapshot(), Path.of(filepath));
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Feature 1: Load a graph written by saveSnapshot
+    public synchronized boolean loadSnapshot(String filepath) {
+        try {
+            replaceWithSnapshot(GraphSnapshotFile.read(Path.of(filepath)));
+            checkpointAfterLoad();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error loading snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void replaceWithSnapshot(GraphSnapshot loaded) {
+        nodeIndex.clear();
+        edgeIndex.clear();
+        inEdges.clear();
+        aliases.clear();
+        this.graph = null;
+        graphChanged();
+        publish(loaded);
+        this.unmaterialized = loaded;
+    }
+
+    // Feature 1: Make mutations durable through a write-ahead journal in the given directory.
+    // If the directory already holds a checkpoint or journal, the graph is replaced by the
+    // recovered state; otherwise the current graph becomes the first checkpoint. With
+    // syncIntervalMillis = 0 every mutation waits for its fsync (shared by concurrent
+    // writers); otherwise fsync happens in the background at that interval, and a crash
+    // can lose that much. A new checkpoint is written once the journal reaches checkpointBytes,
+    // by the mutation that crosses it; other writers wait until it is on disk. If recovery
+    // fails part way, the graph is put back as it was before the call.
+    public boolean openJournal(String directory) {
+        return openJournal(directory, 0, DEFAULT_CHECKPOINT_BYTES);
+    }
+
+    public synchronized boolean openJournal(String directory, long syncIntervalMillis, long checkpointBytes) {
+        if (syncIntervalMillis < 0 || checkpointBytes <= 0) {
+            throw new IllegalArgumentException("Sync interval cannot be negative and checkpoint size must be positive");
+        }
+        closeJournal();
+        GraphSnapshot previous = null; // Set once recovery starts replacing the graph
+        try {
+            Path dir = Path.of(directory);
+            Files.createDirectories(dir);
+            long generation = latestCheckpoint(dir);
+            Path log = dir.resolve(JOURNAL_FILE);
+            boolean recovering = generation > 0 || (Files.exists(log) && Files.size(log) > 0);
+            if (recovering) {
+                previous = getSnapshot();
+            }
+            if (generation > 0) {
+                replaceWithSnapshot(GraphSnapshotFile.read(dir.resolve(checkpointName(generation))));
+            } else if (recovering) {
+                replaceWithSnapshot(new GraphSnapshotBuilder().build());
+            }
+            List<MutationJournal.Entry> replayed = new ArrayList<>();
+            this.journal = MutationJournal.recover(log, generation, TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis),
+                    (type, first, second, weight) -> {
+                        if (applyChange(type, first, second, weight)) {
+                            replayed.add(new MutationJournal.Entry(type, first, second, weight));
+                        }
+                    });
+            publish(replayed);
+            this.journalDirectory = dir;
+            this.checkpointBytes = checkpointBytes;
+            if (!recovering && getNodeCount() > 0) {
+                writeCheckpoint();
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error opening journal: " + e.getMessage());
+            closeJournal();
+            if (previous != null) {
+                // Drops the checkpoint and any records replayed before the failure
+                replaceWithSnapshot(previous);
+            }
+            return false;
+        }
+    }
+
+    // Feature 1: Write the whole graph as a checkpoint and start an empty journal
+    public synchronized boolean checkpoint() {
+        if (journal == null) {
+            System.err.println("Error writing checkpoint: no journal is open");
+            return false;
+        }
+        try {
+            writeCheckpoint();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing checkpoint: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Feature 1: Flush and close the journal; later mutations are no longer logged
+    public synchronized void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Error closing journal: " + e.getMessage());
+            }
+            journal = null;
+            journalDirectory = null;
+        }
+    }
+
+    // Called under the lock after a single change took effect: publishes and journals it,
+    // returning the ticket to wait on, or -1
+    private long changed(byte type, String first, String second, double weight) {
+        publish(List.of(new MutationJournal.Entry(type, first, second, weight)));
+        return journal(type, first, second, weight);
+    }
+
+    private long journal(byte type, String first, String second, double weight) {
+        if (journal == null) {
+            return -1;
+        }
+        long ticket;
+        try {
+            ticket = journal.append(type, first, second, weight);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal write failed; the change is applied in memory only", e);
+        }
+        return journaled(ticket);
+    }
+
+    private long journal(List<MutationJournal.Entry> changes) {
+        if (journal == null || changes.isEmpty()) {
+            return -1;
+        }
+        long ticket;
+        try {
+            ticket = journal.appendBatch(changes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal write failed; the batch is applied in memory only", e);
+        }
+        return journaled(ticket);
+    }
+
+    // Runs after the record is in the journal, so a failed checkpoint loses nothing: the change
+    // is recovered from the journal (or the new checkpoint, if only the journal reset failed)
+    private long journaled(long ticket) {
+        if (journal.size() >= checkpointBytes) {
+            try {
+                writeCheckpoint(); // Also makes the record just appended durable
+            } catch (IOException e) {
+                throw new UncheckedIOException("Checkpoint failed; the change is applied and journaled", e);
+            }
+        }
+        return ticket;
+    }
+
+    // Waits outside the lock so that writers queued behind us can join the same fsync
+    private void awaitDurable(long ticket) {
+        MutationJournal current;
+        synchronized (this) {
+            current = journal;
+        }
+        if (ticket < 0 || current == null) {
+            return;
+        }
+        try {
+            current.awaitDurable(ticket);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal sync failed; the change may not be durable", e);
+        }
+    }
+
+    // Used for journal replay and batches; returns whether the change took effect
+    private boolean applyChange(byte type, String first, String second, double weight) {
+        return switch (type) {
+            case MutationJournal.ADD_NODE -> insertNode(first);
+            case MutationJournal.ADD_EDGE -> linkNodes(first, second, null);
+            case MutationJournal.ADD_WEIGHTED_EDGE -> linkNodes(first, second, weight);
+            case MutationJournal.REMOVE_NODE -> deleteNode(first);
+            case MutationJournal.REMOVE_EDGE -> unlinkNodes(first, second);
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        };
+    }
+
+    // The checkpoint is complete on disk (written, fsynced, renamed, directory synced) before
+    // the journal moves to its generation, so a crash in between replays nothing twice:
+    // recovery skips a journal older than the newest checkpoint. This runs under the lock,
+    // so when a mutation triggers it, other writers wait while the whole graph is written;
+    // searches carry on with the published snapshot.
+    private void writeCheckpoint() throws IOException {
+        long generation = journal.generation() + 1;
+        GraphSnapshotFile.write(getSnapshot(), journalDirectory.resolve(checkpointName(generation)));
+        journal.reset(generation);
+        Files.deleteIfExists(journalDirectory.resolve(checkpointName(generation - 1)));
+    }
+
+    private void checkpointAfterLoad() {
+        if (journal != null && !checkpoint()) {
+            System.err.println("Error: the loaded graph is not covered by the journal until the next checkpoint");
+        }
+    }
+
+    private static String checkpointName(long generation) {
+        return "checkpoint-" + generation + ".snap";
+    }
+
+    // Highest checkpoint generation in the directory, or 0 if there is none
+    private static long latestCheckpoint(Path dir) throws IOException {
+        long latest = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "checkpoint-*.snap")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    latest = Math.max(latest, Long.parseLong(name.substring(11, name.length() - 5)));
+                } catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+        return latest;
+    }
+
+    // Feature: Collect node and edge changes and apply them atomically with commit()
+    public MutationBatch batch() {
+        return new MutationBatch(this);
+    }
+
+    int applyBatch(List<MutationJournal.Entry> changes) {
+        long ticket;
+        List<MutationJournal.Entry> applied = new ArrayList<>();
+        synchronized (this) {
+            materialize();
+            validateBatch(changes);
+            deferChanges = true;
+            try {
+                for (MutationJournal.Entry change : changes) {
+                    if (applyChange(change.type(), change.first(), change.second(), change.weight())) {
+                        applied.add(change);
+                    }
+                }
+            } finally {
+                deferChanges = false;
+                if (!applied.isEmpty()) {
+                    graphChanged();
+                    publish(applied);
+                }
+            }
+            ticket = journal(applied);
+        }
+        awaitDurable(ticket);
+        return applied.size();
+    }
+
+    // Tracks which nodes exist as the batch goes; removing an edge is the only change that can fail
+    private void validateBatch(List<MutationJournal.Entry> changes) {
+        Map<String, Boolean> exists = new HashMap<>();
+        for (int i = 0; i < changes.size(); i++) {
+            MutationJournal.Entry change = changes.get(i);
+            switch (change.type()) {
+                case MutationJournal.ADD_NODE -> exists.put(change.first(), true);
+                case MutationJournal.REMOVE_NODE -> exists.put(change.first(), false);
+                case MutationJournal.ADD_EDGE, MutationJournal.ADD_WEIGHTED_EDGE -> {
+                    exists.put(change.first(), true);
+                    exists.put(change.second(), true);
+                }
+                case MutationJournal.REMOVE_EDGE -> {
+                    if (!exists.getOrDefault(change.first(), nodeIndex.containsKey(change.first()))) {
+                        throw new IllegalArgumentException("Batch change " + i + ": Source node does not exist: "
+                                + change.first());
+                    }
+                    if (!exists.getOrDefault(change.second(), nodeIndex.containsKey(change.second()))) {
+                        throw new IllegalArgumentException("Batch change " + i
+                                + ": Destination node does not exist: " + change.second());
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown change type " + change.type());
+            }
+        }
+    }
+
     // Helper method to get the number of nodes
-    public int getNodeCount() {
-        return graph.nodes().size();
+    public synchronized int getNodeCount() {
+        return unmaterialized != null ? unmaterialized.nodeCount() : nodeIndex.size();
     }
 
     // Helper method to get the number of edges
-    public int getEdgeCount() {
-        return graph.edges().size();
+    public synchronized int getEdgeCount() {
+        return unmaterialized != null ? unmaterialized.edgeCount() : edgeIndex.size();
     }
 
     // Feature 1: Output graph information
     @Override
-    public String toString() {
+    public synchronized String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("Number of nodes: ").append(getNodeCount()).append("\n");
-        sb.append("Node labels: ").append(graph.nodes().stream()
-                .map(n -> n.name().toString())
-                .collect(Collectors.toList())).append("\n");
+        materialize();
+        sb.append("Node labels: ").append(new ArrayList<>(nodeIndex.keySet())).append("\n");
         sb.append("Number of edges: ").append(getEdgeCount()).append("\n");
-        sb.append("Edges: ").append(graph.edges().stream()
-                .map(e -> e.from().name() + " -> " + e.to().name())
+        sb.append("Edges: ").append(nodeIndex.values().stream()
+                .flatMap(n -> linksOf(n).stream().map(link -> n.name() + " -> " + link.to().name()))
                 .collect(Collectors.toList())).append("\n");
         return sb.toString();
     }
 
     // Feature 1: Output graph to file
-    public void outputGraph(String filepath) throws IOException {
+    public synchronized void outputGraph(String filepath) throws IOException {
         File outputFile = new File(filepath);
-        Graphviz.fromGraph(graph).render(Format.DOT).toFile(outputFile);
+        Graphviz.fromGraph(graph()).render(Format.DOT).toFile(outputFile);
     }
 
     // Feature 2: Add a single node
     public boolean addNode(String label) {
-        if (graph.nodes().stream().noneMatch(n -> n.name().toString().equals(label))) {
-            graph.add(mutNode(label));
-            return true;
+        long ticket;
+        synchronized (this) {
+            if (!insertNode(label)) {
+                return false;
+            }
+            ticket = changed(MutationJournal.ADD_NODE, label, null, Double.NaN);
         }
-        return false;
+        awaitDurable(ticket);
+        return true;
     }
 
     // Feature 2: Add multiple nodes
     public void addNodes(String[] labels) {
-        for (String label : labels) {
-            addNode(label);
-        }
+        batch().addNodes(labels).commit();
     }
 
     // Feature 3: Add an edge
     public boolean addEdge(String srcLabel, String dstLabel) {
+        long ticket;
+        synchronized (this) {
+            if (!linkNodes(srcLabel, dstLabel, null)) {
+                return false;
+            }
+            ticket = changed(MutationJournal.ADD_EDGE, srcLabel, dstLabel, Double.NaN);
+        }
+        awaitDurable(ticket);
+        return true;
+    }
+
+    // Feature 3: Add a weighted edge, stored as the DOT weight attribute
+    public boolean addEdge(String srcLabel, String dstLabel, double weight) {
+        long ticket;
+        synchronized (this) {
+            if (!linkNodes(srcLabel, dstLabel, weight)) {
+                return false;
+            }
+            ticket = changed(MutationJournal.ADD_WEIGHTED_EDGE, srcLabel, dstLabel, weight);
+        }
+        awaitDurable(ticket);
+        return true;
+    }
+
+    private boolean insertNode(String label) {
+        materialize();
+        if (!nodeIndex.containsKey(label)) {
+            getOrCreateNode(label);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean linkNodes(String srcLabel, String dstLabel, Double weight) {
+        materialize();
         MutableNode src = getOrCreateNode(srcLabel);
         MutableNode dst = getOrCreateNode(dstLabel);
     
-        boolean edgeExists = graph.edges().stream()
-            .anyMatch(e -> {
-                boolean sameSource = e.from().name().toString().equals(srcLabel);
-                boolean sameTarget = e.to().name().toString().equals(dstLabel);
-                return sameSource && sameTarget;
-            });
+        boolean edgeAdded = edgeIndex.add(new Edge(srcLabel, dstLabel));
     
-        if (!edgeExists) {
-            src.addLink(dst);
+        if (edgeAdded) {
+            src.addLink(weight == null ? dst : Link.to(dst).with("weight", weight));
+            inEdges.computeIfAbsent(dstLabel, k -> new HashSet<>()).add(srcLabel);
+            graphChanged();
             return true;
         }
         return false;
@@ -109,10 +628,14 @@ public class GraphManager {
 
     // Feature 4: Output the graph to a DOT file
     public boolean outputDOTGraph(String path) {
+        return outputDOTGraph(path, false);
+    }
+
+    // Feature 4: Stream the graph to a DOT file, optionally gzip-compressed
+    public boolean outputDOTGraph(String path, boolean gzip) {
         try {
-            String dotContent = GraphFileHandler.generateDOTFormat(graph);
-            GraphFileHandler.writeToFile(dotContent, path);
-            System.out.println("DOT output:\n" + dotContent);
+            GraphFileHandler.writeDOTFile(getSnapshot(), Path.of(path), gzip);
+            System.out.println("DOT output written to: " + path);
             return true;
         } catch (IOException e) {
             System.err.println("Error outputting DOT graph: " + e.getMessage());
@@ -122,113 +645,338 @@ public class GraphManager {
     }
 
     // Feature 4: Output the graph to a graphics file
-    public void outputGraphics(String path, String format) throws IOException {
+    public synchronized void outputGraphics(String path, String format) throws IOException {
         if (!format.equalsIgnoreCase("png")) {
             throw new IllegalArgumentException("Unsupported format. Only PNG is supported.");
         }
 
         File outputFile = new File(path);
-        Graphviz.fromGraph(graph).render(Format.PNG).toFile(outputFile);
+        Graphviz.fromGraph(graph()).render(Format.PNG).toFile(outputFile);
         System.out.println("Graphics output saved to: " + path + " in PNG format");
     }
 
     private MutableNode getOrCreateNode(String label) {
-        return graph.nodes().stream()
-                .filter(n -> n.name().toString().equals(label))
-                .findFirst()
-                .orElseGet(() -> {
-                    MutableNode newNode = mutNode(label);
-                    graph.add(newNode);
-                    return newNode;
-                });
-    }
-
-    private boolean shouldKeepNode(String nodeName, String[] nodesToRemove) {
-        for (String label : nodesToRemove) {
-            if (nodeName.equals(label)) {
-                return false;
+        MutableNode node = nodeIndex.get(label);
+        if (node == null) {
+            node = mutNode(label);
+            if (graph != null) {
+                graph.add(node);
             }
+            nodeIndex.put(label, node);
+            graphChanged();
         }
-        return true;
+        return node;
     }
-    
-    private MutableGraph createNewGraphWithoutNodes(String[] nodesToRemove) {
-        MutableGraph newGraph = mutGraph("graph").setDirected(true);
-        
-        // Copy all nodes except those to be removed
-        for (MutableNode node : graph.nodes()) {
+
+    // Rebuilds all indexes from scratch after a new graph is parsed
+    private void reindex() {
+        nodeIndex.clear();
+        edgeIndex.clear();
+        inEdges.clear();
+        aliases.clear();
+        collectNodes(graph);
+        for (MutableNode node : nodeIndex.values()) {
             String nodeName = node.name().toString();
-            if (shouldKeepNode(nodeName, nodesToRemove)) {
-                newGraph.add(mutNode(nodeName));
+            for (Link link : linksOf(node)) {
+                String targetName = link.to().name().toString();
+                edgeIndex.add(new Edge(nodeName, targetName));
+                inEdges.computeIfAbsent(targetName, k -> new HashSet<>()).add(nodeName);
             }
         }
-        
-        // Copy all edges except those connected to removed nodes
-        for (MutableNode node : graph.nodes()) {
-            String nodeName = node.name().toString();
-            if (shouldKeepNode(nodeName, nodesToRemove)) {
+    }
+
+    // Walks root nodes, link targets and subgraphs, keeping one node per label. The parser
+    // can create several nodes with the same label (e.g. inside a subgraph); the later ones
+    // become aliases of the indexed one. MutableGraph.nodes() is avoided because it hashes
+    // MutableNodes, whose hashCode recurses through every reachable link and overflows
+    // the stack on large connected graphs.
+    private void collectNodes(MutableGraph root) {
+        Set<MutableNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<MutableNode> pending = new ArrayDeque<>();
+        Deque<MutableGraph> graphs = new ArrayDeque<>();
+        graphs.push(root);
+        while (!graphs.isEmpty()) {
+            MutableGraph current = graphs.pop();
+            graphs.addAll(current.graphs());
+            for (MutableNode node : current.rootNodes()) {
+                if (seen.add(node)) {
+                    pending.add(node);
+                }
+            }
+            while (!pending.isEmpty()) {
+                MutableNode node = pending.poll();
+                String label = node.name().toString();
+                if (nodeIndex.putIfAbsent(label, node) != null) {
+                    aliases.computeIfAbsent(label, k -> new ArrayList<>()).add(node);
+                }
                 for (Link link : node.links()) {
-                    String targetName = link.to().name().toString();
-                    if (shouldKeepNode(targetName, nodesToRemove)) {
-                        getOrCreateNode(newGraph, nodeName)
-                            .addLink(getOrCreateNode(newGraph, targetName));
+                    LinkTarget target = link.to();
+                    if (target instanceof MutableGraph subgraph) {
+                        graphs.push(subgraph);
+                        continue;
+                    }
+                    if (target instanceof PortNode port) {
+                        target = port.node();
+                    }
+                    if (target instanceof MutableNode next && seen.add(next)) {
+                        pending.add(next);
                     }
                 }
             }
         }
-        
-        return newGraph;
     }
-    
+
+    // Out-links of a label: its indexed node's, then its aliases' links to other targets
+    private List<Link> linksOf(MutableNode node) {
+        List<MutableNode> others = aliases.get(node.name().toString());
+        if (others == null) {
+            return node.links();
+        }
+        List<Link> links = new ArrayList<>(node.links());
+        Set<String> targets = new HashSet<>();
+        for (Link link : links) {
+            targets.add(link.to().name().toString());
+        }
+        for (MutableNode other : others) {
+            for (Link link : other.links()) {
+                if (targets.add(link.to().name().toString())) {
+                    links.add(link);
+                }
+            }
+        }
+        return links;
+    }
+
+    // Called when the rendering view is about to be rebuilt from the indexed nodes alone:
+    // they take over their aliases' links, which would otherwise disappear with the model
+    private void foldAliases() {
+        for (Map.Entry<String, List<MutableNode>> entry : aliases.entrySet()) {
+            MutableNode node = nodeIndex.get(entry.getKey());
+            List<Link> merged = linksOf(node);
+            node.links().clear();
+            node.links().addAll(merged);
+        }
+        aliases.clear();
+    }
+
+    // Builds MutableNodes and indexes for a streamed graph the first time they are needed.
+    // The graph itself is unchanged, so the snapshot and version stay valid.
+    private void materialize() {
+        GraphSnapshot source = unmaterialized;
+        if (source == null) {
+            return;
+        }
+        unmaterialized = null;
+        MutableNode[] nodes = new MutableNode[source.nodeCount()];
+        for (int id = 0; id < nodes.length; id++) {
+            String label = source.label(id);
+            nodes[id] = mutNode(label);
+            if (source.hasPosition(id)) {
+                nodes[id].add("pos", source.x(id) + "," + source.y(id));
+            }
+            nodeIndex.put(label, nodes[id]);
+        }
+        for (int id = 0; id < nodes.length; id++) {
+            String label = source.label(id);
+            for (int e = source.edgeStart(id), end = source.edgeEnd(id); e < end; e++) {
+                int target = source.target(e);
+                String targetLabel = source.label(target);
+                double weight = source.weight(e);
+                nodes[id].addLink(weight == GraphSnapshot.DEFAULT_WEIGHT
+                        ? nodes[target] : Link.to(nodes[target]).with("weight", weight));
+                edgeIndex.add(new Edge(label, targetLabel));
+                inEdges.computeIfAbsent(targetLabel, k -> new HashSet<>()).add(label);
+            }
+        }
+    }
+
+    // Returns the rendering view, rebuilding it from the node index after removals
+    private MutableGraph graph() {
+        materialize();
+        if (graph == null) {
+            graph = mutGraph("graph").setDirected(true).add(new ArrayList<>(nodeIndex.values()));
+        }
+        return graph;
+    }
+
     // Feature: Remove single node
     public boolean removeNode(String label) {
-        String[] nodesToRemove = {label};
-        boolean nodeExists = graph.nodes().stream()
-                .anyMatch(n -> n.name().toString().equals(label));
-        
-        this.graph = createNewGraphWithoutNodes(nodesToRemove);
-        return nodeExists;
+        long ticket;
+        synchronized (this) {
+            if (!deleteNode(label)) {
+                return false;
+            }
+            ticket = changed(MutationJournal.REMOVE_NODE, label, null, Double.NaN);
+        }
+        awaitDurable(ticket);
+        return true;
+    }
+
+    private boolean deleteNode(String label) {
+        materialize();
+        MutableNode node = nodeIndex.remove(label);
+        if (node == null) {
+            return false;
+        }
+
+        // Unlink incoming edges from each predecessor
+        Set<String> sources = inEdges.remove(label);
+        if (sources != null) {
+            for (String source : sources) {
+                edgeIndex.remove(new Edge(source, label));
+                if (!source.equals(label)) {
+                    removeLinks(nodeIndex.get(source), label);
+                }
+            }
+        }
+
+        // Drop outgoing edges from the successors' reverse index
+        for (Link link : linksOf(node)) {
+            String targetName = link.to().name().toString();
+            edgeIndex.remove(new Edge(label, targetName));
+            Set<String> targetSources = inEdges.get(targetName);
+            if (targetSources != null) {
+                targetSources.remove(label);
+            }
+        }
+        node.links().clear();
+        aliases.remove(label);
+
+        // MutableNode hashes change with their links, so the view is rebuilt rather than patched
+        foldAliases();
+        this.graph = null;
+        graphChanged();
+        return true;
     }
     
     // Feature: Remove multiple nodes
     public void removeNodes(String[] labels) {
-        this.graph = createNewGraphWithoutNodes(labels);
+        batch().removeNodes(labels).commit();
     }
 
     // Feature: Remove an edge
     public boolean removeEdge(String srcLabel, String dstLabel) {
-        MutableNode src = graph.nodes().stream()
-                .filter(n -> n.name().toString().equals(srcLabel))
-                .findFirst()
-                .orElse(null);
+        long ticket;
+        synchronized (this) {
+            if (!unlinkNodes(srcLabel, dstLabel)) {
+                return false;
+            }
+            ticket = changed(MutationJournal.REMOVE_EDGE, srcLabel, dstLabel, Double.NaN);
+        }
+        awaitDurable(ticket);
+        return true;
+    }
+
+    private boolean unlinkNodes(String srcLabel, String dstLabel) {
+        materialize();
+        MutableNode src = nodeIndex.get(srcLabel);
 
         if (src == null) {
             throw new IllegalArgumentException("Source node does not exist: " + srcLabel);
         }
 
-        MutableNode dst = graph.nodes().stream()
-                .filter(n -> n.name().toString().equals(dstLabel))
-                .findFirst()
-                .orElse(null);
+        MutableNode dst = nodeIndex.get(dstLabel);
 
         if (dst == null) {
             throw new IllegalArgumentException("Destination node does not exist: " + dstLabel);
         }
 
-        return src.links().removeIf(link -> 
-            link.to().name().toString().equals(dstLabel));
+        boolean removed = removeLinks(src, dstLabel);
+        if (removed) {
+            edgeIndex.remove(new Edge(srcLabel, dstLabel));
+            inEdges.get(dstLabel).remove(srcLabel);
+            graphChanged();
+        }
+        return removed;
+    }
+
+    // Removes the links from a label's node and its aliases to the target label
+    private boolean removeLinks(MutableNode node, String targetLabel) {
+        boolean removed = node.links().removeIf(link -> link.to().name().toString().equals(targetLabel));
+        for (MutableNode alias : aliases.getOrDefault(node.name().toString(), List.of())) {
+            removed |= alias.links().removeIf(link -> link.to().name().toString().equals(targetLabel));
+        }
+        return removed;
+    }
+
+    // Replaces the heuristic used by A_STAR (defaults to Euclidean distance between pos attributes).
+    // The same graph is republished under a new version, so a search still running with the
+    // old heuristic caches its result under a version no later lookup asks for.
+    public synchronized void setAStarHeuristic(SearchHeuristic heuristic) {
+        if (heuristic == null) {
+            throw new IllegalArgumentException("Heuristic cannot be null");
+        }
+        setStrategy(Algorithm.A_STAR, new AStarSearchStrategy(heuristic));
+        version++;
+        published = published.then(List.of(), version);
+        if (pathCache != null) {
+            pathCache.clear();
+        }
+    }
+
+    // Configures RANDOM_WALK: walkers run in parallel and the shortest successful walk wins
+    public synchronized void setRandomWalkOptions(int walkers, int maxSteps, double restartProbability) {
+        setStrategy(Algorithm.RANDOM_WALK, new RandomWalkSearchStrategy(walkers, maxSteps, restartProbability));
+    }
+
+    private void setStrategy(Algorithm algorithm, SearchStrategy strategy) {
+        Map<Algorithm, SearchStrategy> strategies = new EnumMap<>(searchStrategies);
+        strategies.put(algorithm, strategy);
+        searchStrategies = strategies;
+    }
+
+    // Random-walk engine over the current snapshot, e.g. for hitting-time statistics
+    public RandomWalkEngine randomWalks() {
+        return new RandomWalkEngine(getSnapshot());
     }
 
-    // Helper method for node creation in new graph
-    private MutableNode getOrCreateNode(MutableGraph g, String label) {
-        return g.nodes().stream()
-                .filter(n -> n.name().toString().equals(label))
-                .findFirst()
-                .orElseGet(() -> {
-                    MutableNode newNode = mutNode(label);
-                    g.add(newNode);
-                    return newNode;
-                });
+    // Feature: PageRank by parallel power iteration, stopping once the L1 change drops below tolerance
+    public CentralityScores pageRank(double damping, double tolerance, int maxIterations) {
+        return new GraphCentrality(getSnapshot()).pageRank(damping, tolerance, maxIterations);
+    }
+
+    // Feature: PageRank that restarts only at the given seed nodes
+    public CentralityScores personalizedPageRank(Collection<String> seeds, double damping, double tolerance,
+                                                 int maxIterations) {
+        return new GraphCentrality(getSnapshot()).personalizedPageRank(seeds, damping, tolerance, maxIterations);
+    }
+
+    // Feature: Degree centrality, (in + out) / (n - 1)
+    public CentralityScores degreeCentrality() {
+        return new GraphCentrality(getSnapshot()).degreeCentrality();
+    }
+
+    // Feature: Betweenness estimated from a seeded sample of source nodes (exact when samples >= node count)
+    public CentralityScores betweennessCentrality(int samples, long seed) {
+        return new GraphCentrality(getSnapshot()).betweenness(samples, seed);
+    }
+
+    // Caches up to maxEntries search results (RANDOM_WALK is never cached)
+    public void enablePathCache(int maxEntries) {
+        this.pathCache = new PathCache(maxEntries);
+    }
+
+    // Same, additionally bounding the total number of path nodes held
+    public void enablePathCache(int maxEntries, long maxWeight) {
+        this.pathCache = new PathCache(maxEntries, maxWeight);
+    }
+
+    public void disablePathCache() {
+        this.pathCache = null;
+    }
+
+    // Returns the active cache (for hit/miss statistics), or null if caching is off
+    public PathCache getPathCache() {
+        return pathCache;
+    }
+
+    // Per-algorithm query counts, latencies and work done; register() exposes it over JMX
+    public SearchMetrics getSearchMetrics() {
+        return searchMetrics;
+    }
+
+    public long getVersion() {
+        return version;
     }
 
     public GraphPath searchPath(String srcLabel, String dstLabel, Algorithm algo) {
@@ -236,7 +984,132 @@ public class GraphManager {
             throw new IllegalArgumentException("Algorithm cannot be null");
         }
         
-        SearchStrategy strategy = searchStrategies.get(algo);
-        return strategy.findPath(graph, srcLabel, dstLabel);
+        return runQuery(current(), new PathQuery(srcLabel, dstLabel, algo));
+    }
+
+    // Runs a batch of queries concurrently, one virtual thread each; results keep query order
+    public List<GraphPath> searchPaths(Collection<PathQuery> queries) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return searchPaths(queries, executor);
+        }
+    }
+
+    // Same as above on a caller-supplied (e.g. bounded) executor. Every query sees the
+    // snapshot taken at the start of the call; the first failing query's exception is rethrown.
+    public List<GraphPath> searchPaths(Collection<PathQuery> queries, Executor executor) {
+        Published current = current();
+        List<CompletableFuture<GraphPath>> futures = new ArrayList<>(queries.size());
+        for (PathQuery query : queries) {
+            futures.add(CompletableFuture.supplyAsync(() -> runQuery(current, query), executor));
+        }
+
+        List<GraphPath> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<GraphPath> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    // Runs one query against the given snapshot, going through the path cache when enabled
+    private GraphPath runQuery(Published current, PathQuery query) {
+        SearchStrategy strategy = searchStrategies.get(query.algorithm());
+        PathCache cache = pathCache;
+        if (cache == null || query.algorithm() == Algorithm.RANDOM_WALK) {
+            return timedSearch(strategy, current, query);
+        }
+
+        PathCache.Entry cached = cache.lookup(query, current.version());
+        if (cached != null) {
+            return cached.path() == null ? null : new GraphPath(cached.path());
+        }
+        GraphPath path = timedSearch(strategy, current, query);
+        cache.store(query, current.version(), path);
+        // Callers may add to the returned path, so the cache keeps its own copy
+        return path == null ? null : new GraphPath(path);
+    }
+
+    // Pairs the condensation DAG rules out return null without touching the graph. The
+    // components are built in the background on the first search of a version; until they
+    // are ready, searches run without the pre-check and without component pruning.
+    private GraphPath timedSearch(SearchStrategy strategy, Published current, PathQuery query) {
+        GraphSnapshot graph = current.snapshot();
+        StronglyConnectedComponents scc = current.components().getNow(null);
+        int src = graph.idOf(query.src());
+        int dst = graph.idOf(query.dst());
+        SearchStats stats = new SearchStats();
+        long start = System.nanoTime();
+        GraphPath path = scc != null && src >= 0 && dst >= 0 && !canReach(current, scc, src, dst) ? null
+                : strategy.findPath(graph, query.src(), query.dst(), stats, scc);
+        searchMetrics.record(query.algorithm(), System.nanoTime() - start, stats, path != null);
+        return path;
+    }
+
+    // Strongly connected components of the current graph, computed once per version
+    public StronglyConnectedComponents getComponents() {
+        return current().components().join();
+    }
+
+    // Feature: Path existence from the reachability index, without a graph search
+    public boolean isReachable(String srcLabel, String dstLabel) {
+        Published current = current();
+        GraphSnapshot graph = current.snapshot();
+        int src = graph.idOf(srcLabel);
+        int dst = graph.idOf(dstLabel);
+        if (src < 0 || dst < 0) {
+            throw new IllegalArgumentException("Source or destination node does not exist");
+        }
+        return current.reachability().isReachable(src, dst);
+    }
+
+    // Cheap pre-check before a search: exact when this version has a reachability index,
+    // else only rules out pairs the topological order of the components forbids (the search
+    // itself is pruned the same way, so a DAG search here would only repeat it)
+    private boolean canReach(Published current, StronglyConnectedComponents scc, int src, int dst) {
+        ReachabilityIndex index = current.reachability;
+        if (index != null) {
+            return index.isReachable(src, dst);
+        }
+        return scc.component(src) >= scc.component(dst);
+    }
+
+    // Returns the CSR snapshot of the current graph, building it once per version
+    public GraphSnapshot getSnapshot() {
+        return current().snapshot();
+    }
+
+    private Published current() {
+        return published;
+    }
+
+    // Called under the lock once a mutation or batch is complete, so searches never wait
+    // for the writer; intermediate versions are never published
+    private void publish(List<MutationJournal.Entry> applied) {
+        if (applied.isEmpty()) {
+            return;
+        }
+        Published next = published.then(applied, version);
+        published = next;
+        if (next.hasBacklog()) {
+            next.snapshot();
+        }
+    }
+
+    // After a load, which replaces the whole graph
+    private void publish(GraphSnapshot snapshot) {
+        published = new Published(snapshot, version);
+    }
+
+    private void graphChanged() {
+        if (deferChanges) {
+            return; // applyBatch calls this once at the end
+        }
+        version++;
     }
 }
\ No newline at end of file
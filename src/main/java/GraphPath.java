@@ -1,29 +1,168 @@
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.RandomAccess;
 
+// A path stored as the node ids of the snapshot it was found in; labels are looked up
+// in that snapshot's label array only when asked for, so a path costs 4 bytes per node.
+// Only the label array and label -> id map are kept, not the snapshot's edges, so a path
+// stays readable after the graph changes without pinning the old version. Paths built
+// label by label with addNode, or extended with a label the snapshot lacks, keep labels.
 public class GraphPath {
-    private List<String> nodes;
-    
+    private String[] dictionary; // Snapshot labels by id; null once the path holds labels
+    private Map<String, Integer> dictionaryIds; // The snapshot's label -> id map, for addNode
+    private int[] ids;
+    private String[] labels;
+    private int length;
+    private boolean shared; // Arrays belong to the path this was copied from; copy before writing
+    private double cost = Double.NaN; // Total edge weight; NaN for unweighted searches
+    private int expandedNodes = -1; // Nodes the search expanded; -1 when not tracked
+
     public GraphPath() {
-        this.nodes = new ArrayList<>();
+        this.labels = new String[4];
+    }
+
+    private GraphPath(GraphSnapshot graph, int[] ids) {
+        this.dictionary = graph.labels();
+        this.dictionaryIds = graph.ids();
+        this.ids = ids;
+        this.length = ids.length;
     }
-    
+
     public void addNode(String node) {
-        nodes.add(node);
+        if (dictionary != null) {
+            Integer id = dictionaryIds.get(node);
+            if (id != null) {
+                if (shared || length == ids.length) {
+                    ids = Arrays.copyOf(ids, Math.max(4, length * 2));
+                    shared = false;
+                }
+                ids[length++] = id;
+                return;
+            }
+            labels = resolveLabels(Math.max(4, length * 2));
+            dictionary = null;
+            dictionaryIds = null;
+            ids = null;
+        } else if (shared || length == labels.length) {
+            labels = Arrays.copyOf(labels, Math.max(4, length * 2));
+        }
+        shared = false;
+        labels[length++] = node;
     }
-    
+
+    // Read-only view; labels are resolved on access
     public List<String> getNodes() {
-        return new ArrayList<>(nodes);
+        return new NodeList();
+    }
+
+    public String getNode(int index) {
+        checkIndex(index);
+        return dictionary != null ? dictionary[ids[index]] : labels[index];
+    }
+
+    // Id of the node in the snapshot the path was found in, or -1 for a path built from labels
+    public int getNodeId(int index) {
+        checkIndex(index);
+        return dictionary != null ? ids[index] : -1;
+    }
+
+    // Number of nodes on the path
+    public int length() {
+        return length;
+    }
+
+    // Number of edges on the path
+    public int hops() {
+        return Math.max(0, length - 1);
+    }
+
+    public double getCost() {
+        return cost;
+    }
+
+    public boolean hasCost() {
+        return !Double.isNaN(cost);
+    }
+
+    void setCost(double cost) {
+        this.cost = cost;
+    }
+
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    void setExpandedNodes(int expandedNodes) {
+        this.expandedNodes = expandedNodes;
     }
-    
+
     @Override
     public String toString() {
-        return nodes.stream().collect(Collectors.joining(" -> "));
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                text.append(" -> ");
+            }
+            text.append(getNode(i));
+        }
+        return text.toString();
     }
-    
-    // Copy constructor for creating new paths
+
+    // Copy constructor for creating new paths; the arrays are shared until either side adds a node
     public GraphPath(GraphPath other) {
-        this.nodes = new ArrayList<>(other.nodes);
+        this.dictionary = other.dictionary;
+        this.dictionaryIds = other.dictionaryIds;
+        this.ids = other.ids;
+        this.labels = other.labels;
+        this.length = other.length;
+        this.shared = true;
+        this.cost = other.cost;
+        this.expandedNodes = other.expandedNodes;
+    }
+
+    // Builds the src -> dst path from a parent array where the source's parent is -1
+    static GraphPath fromParents(GraphSnapshot graph, int[] parent, int dst) {
+        int length = 0;
+        for (int node = dst; node != -1; node = parent[node]) {
+            length++;
+        }
+        int[] ids = new int[length];
+        for (int node = dst, i = length - 1; node != -1; node = parent[node], i--) {
+            ids[i] = node;
+        }
+        return new GraphPath(graph, ids);
+    }
+
+    // Takes ownership of ids
+    static GraphPath of(GraphSnapshot graph, int[] ids) {
+        return new GraphPath(graph, ids);
+    }
+
+    private String[] resolveLabels(int capacity) {
+        String[] resolved = new String[capacity];
+        for (int i = 0; i < length; i++) {
+            resolved[i] = dictionary[ids[i]];
+        }
+        return resolved;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for path of length " + length);
+        }
+    }
+
+    private final class NodeList extends AbstractList<String> implements RandomAccess {
+        @Override
+        public String get(int index) {
+            return getNode(index);
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,434 @@
+import guru.nidi.graphviz.model.Link;
+import guru.nidi.graphviz.model.MutableGraph;
+import guru.nidi.graphviz.model.MutableNode;
+import java.util.*;
+import java.util.function.Function;
+
+// Immutable compressed-sparse-row view of a graph: nodes get dense int ids and
+// the out-edges of node i are targets[offsets[i]] .. targets[offsets[i + 1] - 1].
+// The same layout is kept for in-edges (inOffsets/sources) for backward searches,
+// weights[e] holds the numeric weight (or len) attribute of out-edge e (null when
+// every edge has the default weight), and
+// xs/ys hold node coordinates from DOT pos attributes (null when no node has one).
+public final class GraphSnapshot {
+    static final double DEFAULT_WEIGHT = 1.0;
+
+    private final String[] labels;
+    private final Map<String, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final int[] inOffsets;
+    private final int[] sources;
+    private final double[] xs;
+    private final double[] ys;
+    // Computed on first use by distanceScale(); NaN until then
+    private volatile double distanceScale = Double.NaN;
+
+    GraphSnapshot(String[] labels, Map<String, Integer> ids, int[] offsets, int[] targets, double[] weights,
+                  double[] xs, double[] ys) {
+        this.labels = labels;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.xs = xs;
+        this.ys = ys;
+        this.inOffsets = new int[labels.length + 1];
+        this.sources = new int[targets.length];
+        buildReverse();
+    }
+
+    // Used when the reverse CSR was stored alongside the forward one (see GraphSnapshotFile)
+    GraphSnapshot(String[] labels, Map<String, Integer> ids, int[] offsets, int[] targets, double[] weights,
+                  int[] inOffsets, int[] sources, double[] xs, double[] ys) {
+        this.labels = labels;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.inOffsets = inOffsets;
+        this.sources = sources;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    // Counting sort of the edges by target
+    private void buildReverse() {
+        for (int target : targets) {
+            inOffsets[target + 1]++;
+        }
+        for (int i = 0; i < labels.length; i++) {
+            inOffsets[i + 1] += inOffsets[i];
+        }
+        int[] next = Arrays.copyOf(inOffsets, labels.length);
+        for (int node = 0; node < labels.length; node++) {
+            for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                sources[next[targets[e]]++] = node;
+            }
+        }
+    }
+
+    public static GraphSnapshot of(MutableGraph graph) {
+        return of(graph.nodes());
+    }
+
+    public static GraphSnapshot of(Collection<MutableNode> nodes) {
+        return of(nodes, MutableNode::links);
+    }
+
+    // With the out-links of each node supplied by the caller
+    static GraphSnapshot of(Collection<MutableNode> nodes, Function<MutableNode, List<Link>> linksOf) {
+        int n = nodes.size();
+        String[] labels = new String[n];
+        Map<String, Integer> ids = new HashMap<>(n * 2);
+        double[] xs = null;
+        double[] ys = null;
+        int edgeCount = 0;
+        for (MutableNode node : nodes) {
+            String label = node.name().toString();
+            int id = ids.size();
+            ids.put(label, id);
+            labels[id] = label;
+            edgeCount += linksOf.apply(node).size();
+
+            Object pos = node.get("pos");
+            if (pos != null) {
+                if (xs == null) {
+                    xs = new double[n];
+                    ys = new double[n];
+                    Arrays.fill(xs, Double.NaN);
+                    Arrays.fill(ys, Double.NaN);
+                }
+                double[] xy = parsePosition(pos.toString());
+                if (xy != null) {
+                    xs[id] = xy[0];
+                    ys[id] = xy[1];
+                }
+            }
+        }
+
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[edgeCount];
+        double[] weights = new double[edgeCount];
+        boolean weighted = false;
+        int edge = 0;
+        int id = 0;
+        for (MutableNode node : nodes) {
+            offsets[id++] = edge;
+            for (Link link : linksOf.apply(node)) {
+                Integer target = ids.get(link.to().name().toString());
+                if (target != null) {
+                    weights[edge] = weightOf(link);
+                    weighted |= weights[edge] != DEFAULT_WEIGHT;
+                    targets[edge++] = target;
+                }
+            }
+        }
+        offsets[n] = edge;
+        if (edge < edgeCount) {
+            targets = Arrays.copyOf(targets, edge);
+            weights = Arrays.copyOf(weights, edge);
+        }
+        return new GraphSnapshot(labels, ids, offsets, targets, weighted ? weights : null, xs, ys);
+    }
+
+    // Returns this snapshot with the changes applied in order, as GraphManager applies them
+    // to its nodes: nodes are created by the edges that name them, a removed node takes its
+    // edges in both directions with it, and a node added again (like an edge) goes last.
+    // Only changes that took effect may be passed. Costs O(nodes + edges + changes); the
+    // label table is shared when no node was added or removed.
+    GraphSnapshot withChanges(List<MutationJournal.Entry> changes) {
+        int n = labels.length;
+        // Slots 0 .. n - 1 are this snapshot's nodes, later ones nodes added by the changes
+        List<String> added = new ArrayList<>();
+        Map<String, Integer> slotOf = new HashMap<>(); // Overrides ids for labels the changes touch
+        BitSet removed = new BitSet();
+        Map<Integer, EdgeList> rewritten = new HashMap<>(); // Out-edges of the nodes whose edges changed
+        for (MutationJournal.Entry change : changes) {
+            switch (change.type()) {
+                case MutationJournal.ADD_NODE -> slot(change.first(), slotOf, added);
+                case MutationJournal.ADD_EDGE, MutationJournal.ADD_WEIGHTED_EDGE -> {
+                    int src = slot(change.first(), slotOf, added);
+                    int dst = slot(change.second(), slotOf, added);
+                    double weight = change.type() == MutationJournal.ADD_EDGE ? DEFAULT_WEIGHT : change.weight();
+                    edgesOf(src, rewritten).add(dst, weight);
+                }
+                case MutationJournal.REMOVE_NODE -> {
+                    int node = slotOf.getOrDefault(change.first(), idOf(change.first()));
+                    if (node >= 0) {
+                        removed.set(node);
+                        slotOf.put(change.first(), -1);
+                        rewritten.remove(node);
+                    }
+                }
+                case MutationJournal.REMOVE_EDGE -> {
+                    int src = slotOf.getOrDefault(change.first(), idOf(change.first()));
+                    int dst = slotOf.getOrDefault(change.second(), idOf(change.second()));
+                    if (src >= 0 && dst >= 0) {
+                        edgesOf(src, rewritten).remove(dst);
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown change type " + change.type());
+            }
+        }
+
+        int slots = n + added.size();
+        int[] idOfSlot = new int[slots];
+        int count = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            idOfSlot[slot] = removed.get(slot) ? -1 : count++;
+        }
+        boolean sameNodes = added.isEmpty() && removed.isEmpty();
+        String[] newLabels = sameNodes ? labels : new String[count];
+        double[] newXs = xs == null ? null : new double[count];
+        double[] newYs = ys == null ? null : new double[count];
+        int[] newOffsets = new int[count + 1];
+        int edgeCount = targets.length;
+        for (EdgeList list : rewritten.values()) {
+            edgeCount += list.size;
+        }
+        int[] newTargets = new int[edgeCount];
+        double[] newWeights = new double[edgeCount];
+        boolean weighted = false;
+        int edge = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            int id = idOfSlot[slot];
+            if (id < 0) {
+                continue;
+            }
+            if (!sameNodes) {
+                newLabels[id] = slot < n ? labels[slot] : added.get(slot - n);
+            }
+            if (newXs != null) {
+                newXs[id] = slot < n ? xs[slot] : Double.NaN;
+                newYs[id] = slot < n ? ys[slot] : Double.NaN;
+            }
+            newOffsets[id] = edge;
+            EdgeList list = rewritten.get(slot);
+            int degree = list != null ? list.size : slot < n ? offsets[slot + 1] - offsets[slot] : 0;
+            for (int i = 0; i < degree; i++) {
+                int target = idOfSlot[list != null ? list.targets[i] : targets[offsets[slot] + i]];
+                if (target >= 0) {
+                    double weight = list != null ? list.weights[i] : weight(offsets[slot] + i);
+                    weighted |= weight != DEFAULT_WEIGHT;
+                    newWeights[edge] = weight;
+                    newTargets[edge++] = target;
+                }
+            }
+        }
+        newOffsets[count] = edge;
+        if (edge < edgeCount) {
+            newTargets = Arrays.copyOf(newTargets, edge);
+            newWeights = Arrays.copyOf(newWeights, edge);
+        }
+        Map<String, Integer> newIds = ids;
+        if (!sameNodes) {
+            newIds = new HashMap<>(count * 2);
+            for (int id = 0; id < count; id++) {
+                newIds.put(newLabels[id], id);
+            }
+        }
+        return new GraphSnapshot(newLabels, newIds, newOffsets, newTargets, weighted ? newWeights : null,
+                newXs, newYs);
+    }
+
+    // Slot of an existing node, or of a new one appended for the label
+    private int slot(String label, Map<String, Integer> slotOf, List<String> added) {
+        int slot = slotOf.getOrDefault(label, idOf(label));
+        if (slot < 0) {
+            slot = labels.length + added.size();
+            added.add(label);
+            slotOf.put(label, slot);
+        }
+        return slot;
+    }
+
+    // Out-edges of a slot, copied from this snapshot the first time they change
+    private EdgeList edgesOf(int slot, Map<Integer, EdgeList> rewritten) {
+        EdgeList list = rewritten.get(slot);
+        if (list == null) {
+            list = new EdgeList();
+            if (slot < labels.length) {
+                for (int e = offsets[slot]; e < offsets[slot + 1]; e++) {
+                    list.add(targets[e], weight(e));
+                }
+            }
+            rewritten.put(slot, list);
+        }
+        return list;
+    }
+
+    private static final class EdgeList {
+        int[] targets = new int[4];
+        double[] weights = new double[4];
+        int size;
+
+        void add(int target, double weight) {
+            if (size == targets.length) {
+                targets = Arrays.copyOf(targets, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            targets[size] = target;
+            weights[size++] = weight;
+        }
+
+        void remove(int target) {
+            int write = 0;
+            for (int i = 0; i < size; i++) {
+                if (targets[i] != target) {
+                    targets[write] = targets[i];
+                    weights[write++] = weights[i];
+                }
+            }
+            size = write;
+        }
+    }
+
+    // DOT pos is "x,y" with an optional third coordinate and a trailing '!' to pin the node
+    // Returns {x, y}, or null if the value is not a coordinate pair
+    static double[] parsePosition(String pos) {
+        String[] parts = pos.replace("!", "").split(",");
+        if (parts.length < 2) {
+            return null;
+        }
+        try {
+            return new double[]{Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim())};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Reads the DOT weight attribute, falling back to len and then to unit weight
+    static double weightOf(Link link) {
+        Object value = link.get("weight");
+        if (value == null) {
+            value = link.get("len");
+        }
+        if (value == null) {
+            return DEFAULT_WEIGHT;
+        }
+        try {
+            return Double.parseDouble(value.toString());
+        } catch (NumberFormatException e) {
+            return DEFAULT_WEIGHT;
+        }
+    }
+
+    public int nodeCount() {
+        return labels.length;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    // Returns the dense id of a label, or -1 if the node does not exist
+    public int idOf(String label) {
+        Integer id = ids.get(label);
+        return id == null ? -1 : id;
+    }
+
+    public String label(int node) {
+        return labels[node];
+    }
+
+    // Shared, not copied: for GraphPath, which resolves ids without keeping the snapshot
+    String[] labels() {
+        return labels;
+    }
+
+    Map<String, Integer> ids() {
+        return ids;
+    }
+
+    public int edgeStart(int node) {
+        return offsets[node];
+    }
+
+    public int edgeEnd(int node) {
+        return offsets[node + 1];
+    }
+
+    public int degree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    public double weight(int edge) {
+        return weights == null ? DEFAULT_WEIGHT : weights[edge];
+    }
+
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    public boolean hasPositions() {
+        return xs != null;
+    }
+
+    public boolean hasPosition(int node) {
+        return xs != null && !Double.isNaN(xs[node]) && !Double.isNaN(ys[node]);
+    }
+
+    public double x(int node) {
+        return xs == null ? Double.NaN : xs[node];
+    }
+
+    public double y(int node) {
+        return ys == null ? Double.NaN : ys[node];
+    }
+
+    // Largest factor s for which s times the straight-line distance between two nodes never
+    // exceeds the cost of a path between them: the smallest weight per unit of distance over
+    // all edges. By the triangle inequality the bound then holds for whole paths. It is 0
+    // unless every node has a position, since a path through an unplaced node can be
+    // arbitrarily short compared with the distance it covers.
+    public double distanceScale() {
+        double scale = distanceScale;
+        if (Double.isNaN(scale)) {
+            scale = computeDistanceScale();
+            distanceScale = scale; // Racing threads compute the same value
+        }
+        return scale;
+    }
+
+    private double computeDistanceScale() {
+        for (int node = 0; node < labels.length; node++) {
+            if (!hasPosition(node)) {
+                return 0;
+            }
+        }
+        double scale = Double.POSITIVE_INFINITY;
+        for (int node = 0; node < labels.length; node++) {
+            for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                int target = targets[e];
+                double distance = Math.hypot(xs[node] - xs[target], ys[node] - ys[target]);
+                if (distance > 0) {
+                    scale = Math.min(scale, Math.max(0, weight(e)) / distance);
+                }
+            }
+        }
+        return Double.isInfinite(scale) ? 0 : scale;
+    }
+
+    public int inEdgeStart(int node) {
+        return inOffsets[node];
+    }
+
+    public int inEdgeEnd(int node) {
+        return inOffsets[node + 1];
+    }
+
+    public int inDegree(int node) {
+        return inOffsets[node + 1] - inOffsets[node];
+    }
+
+    // Source node of the given in-edge slot (indexes the inOffsets ranges, not targets)
+    public int source(int inEdge) {
+        return sources[inEdge];
+    }
+}
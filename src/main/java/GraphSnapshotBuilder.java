@@ -0,0 +1,166 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Accumulates nodes and edges in flat primitive arrays and turns them into a
+// GraphSnapshot with one counting sort, without ever creating MutableNodes.
+// Callers own label de-duplication: addNode must be called once per label.
+public class GraphSnapshotBuilder {
+    private String[] labels = new String[16];
+    private int nodeCount;
+    private int[] edgeSources = new int[16];
+    private int[] edgeTargets = new int[16];
+    private double[] edgeWeights; // Allocated on the first non-default weight
+    private int edgeCount;
+    private double[] xs;
+    private double[] ys;
+
+    // Registers a new label and returns its dense id
+    public int addNode(String label) {
+        if (nodeCount == labels.length) {
+            labels = Arrays.copyOf(labels, nodeCount * 2);
+        }
+        labels[nodeCount] = label;
+        return nodeCount++;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public void addEdge(int src, int dst) {
+        addEdge(src, dst, GraphSnapshot.DEFAULT_WEIGHT);
+    }
+
+    public void addEdge(int src, int dst, double weight) {
+        if (edgeCount == edgeSources.length) {
+            int capacity = edgeCount * 2;
+            edgeSources = Arrays.copyOf(edgeSources, capacity);
+            edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+            if (edgeWeights != null) {
+                edgeWeights = Arrays.copyOf(edgeWeights, capacity);
+            }
+        }
+        if (edgeWeights == null && weight != GraphSnapshot.DEFAULT_WEIGHT) {
+            edgeWeights = new double[edgeSources.length];
+            Arrays.fill(edgeWeights, 0, edgeCount, GraphSnapshot.DEFAULT_WEIGHT);
+        }
+        edgeSources[edgeCount] = src;
+        edgeTargets[edgeCount] = dst;
+        if (edgeWeights != null) {
+            edgeWeights[edgeCount] = weight;
+        }
+        edgeCount++;
+    }
+
+    // Appends count edges at once; weights may be null for unit weights
+    public void addEdges(int[] sources, int[] targets, double[] weights, int count) {
+        int required = edgeCount + count;
+        if (required > edgeSources.length) {
+            int capacity = Math.max(required, edgeSources.length * 2);
+            edgeSources = Arrays.copyOf(edgeSources, capacity);
+            edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+            if (edgeWeights != null) {
+                edgeWeights = Arrays.copyOf(edgeWeights, capacity);
+            }
+        }
+        if (edgeWeights == null && weights != null) {
+            edgeWeights = new double[edgeSources.length];
+            Arrays.fill(edgeWeights, 0, edgeCount, GraphSnapshot.DEFAULT_WEIGHT);
+        }
+        System.arraycopy(sources, 0, edgeSources, edgeCount, count);
+        System.arraycopy(targets, 0, edgeTargets, edgeCount, count);
+        if (weights != null) {
+            System.arraycopy(weights, 0, edgeWeights, edgeCount, count);
+        } else if (edgeWeights != null) {
+            Arrays.fill(edgeWeights, edgeCount, required, GraphSnapshot.DEFAULT_WEIGHT);
+        }
+        edgeCount = required;
+    }
+
+    public void setPosition(int node, double x, double y) {
+        if (xs == null || xs.length < labels.length) {
+            int from = xs == null ? 0 : xs.length;
+            xs = xs == null ? new double[labels.length] : Arrays.copyOf(xs, labels.length);
+            ys = ys == null ? new double[labels.length] : Arrays.copyOf(ys, labels.length);
+            Arrays.fill(xs, from, xs.length, Double.NaN);
+            Arrays.fill(ys, from, ys.length, Double.NaN);
+        }
+        xs[node] = x;
+        ys[node] = y;
+    }
+
+    // Sorts edges by source (stable, so each node keeps insertion order) and drops
+    // repeated (src, dst) pairs, keeping the first one's weight like addEdge does
+    public GraphSnapshot build() {
+        int n = nodeCount;
+        int[] offsets = new int[n + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            offsets[edgeSources[e] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] targets = new int[edgeCount];
+        double[] weights = edgeWeights == null ? null : new double[edgeCount];
+        int[] next = Arrays.copyOf(offsets, n);
+        for (int e = 0; e < edgeCount; e++) {
+            int slot = next[edgeSources[e]]++;
+            targets[slot] = edgeTargets[e];
+            if (weights != null) {
+                weights[slot] = edgeWeights[e];
+            }
+        }
+        edgeSources = null;
+        edgeTargets = null;
+        edgeWeights = null;
+
+        int[] lastSource = next; // Reused: lastSource[t] == u + 1 once u -> t was kept
+        Arrays.fill(lastSource, 0);
+        int write = 0;
+        for (int u = 0; u < n; u++) {
+            int start = offsets[u];
+            int end = offsets[u + 1];
+            offsets[u] = write;
+            for (int e = start; e < end; e++) {
+                int target = targets[e];
+                if (lastSource[target] != u + 1) {
+                    lastSource[target] = u + 1;
+                    targets[write] = target;
+                    if (weights != null) {
+                        weights[write] = weights[e];
+                    }
+                    write++;
+                }
+            }
+        }
+        offsets[n] = write;
+        if (write < targets.length) {
+            targets = Arrays.copyOf(targets, write);
+            weights = weights == null ? null : Arrays.copyOf(weights, write);
+        }
+
+        String[] finalLabels = Arrays.copyOf(labels, n);
+        Map<String, Integer> ids = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            ids.put(finalLabels[i], i);
+        }
+        return new GraphSnapshot(finalLabels, ids, offsets, targets, weights, padded(xs, n), padded(ys, n));
+    }
+
+    // Nodes added after the last setPosition have no coordinates
+    private static double[] padded(double[] values, int n) {
+        if (values == null) {
+            return null;
+        }
+        double[] result = Arrays.copyOf(values, n);
+        if (values.length < n) {
+            Arrays.fill(result, values.length, n, Double.NaN);
+        }
+        return result;
+    }
+}
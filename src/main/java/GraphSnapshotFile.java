@@ -0,0 +1,302 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+// Compact binary form of a GraphSnapshot for fast startup. The file is a fixed
+// header followed by the snapshot's arrays in little-endian order, so loading is
+// bulk copies through one buffer instead of parsing:
+//
+//   header: magic, format version, flags, node count, edge count, label bytes, CRC32C of the body
+//   body:   offsets[n + 1], targets[m], inOffsets[n + 1], sources[m], labelEnds[n],
+//           weights[m] (if weighted), xs[n] and ys[n] (if positioned), UTF-8 label bytes
+public class GraphSnapshotFile {
+    static final int MAGIC = 0x4A474B53; // "JGKS"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 32;
+
+    private static final int FLAG_WEIGHTED = 1;
+    private static final int FLAG_POSITIONS = 2;
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private GraphSnapshotFile() {
+    }
+
+    public static void write(GraphSnapshot graph, Path path) throws IOException {
+        int n = graph.nodeCount();
+        byte[][] encoded = new byte[n][];
+        long labelBytes = 0;
+        for (int i = 0; i < n; i++) {
+            encoded[i] = graph.label(i).getBytes(StandardCharsets.UTF_8);
+            labelBytes += encoded[i].length;
+        }
+        if (labelBytes > Integer.MAX_VALUE) {
+            throw new IOException("Labels are too large for the snapshot format");
+        }
+        int flags = (graph.isWeighted() ? FLAG_WEIGHTED : 0) | (graph.hasPositions() ? FLAG_POSITIONS : 0);
+
+        // Written beside the target and renamed over it, so a crash leaves the old file intact
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            writeBody(graph, temporary, encoded, flags, labelBytes);
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        syncDirectory(path.toAbsolutePath().getParent());
+    }
+
+    private static void writeBody(GraphSnapshot graph, Path path, byte[][] encoded, int flags, long labelBytes)
+            throws IOException {
+        int n = graph.nodeCount();
+        int m = graph.edgeCount();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ChunkWriter out = new ChunkWriter(channel);
+            for (int i = 0; i < n; i++) {
+                out.putInt(graph.edgeStart(i));
+            }
+            out.putInt(m);
+            for (int e = 0; e < m; e++) {
+                out.putInt(graph.target(e));
+            }
+            for (int i = 0; i < n; i++) {
+                out.putInt(graph.inEdgeStart(i));
+            }
+            out.putInt(m);
+            for (int e = 0; e < m; e++) {
+                out.putInt(graph.source(e));
+            }
+            int end = 0;
+            for (byte[] label : encoded) {
+                end += label.length;
+                out.putInt(end);
+            }
+            if (graph.isWeighted()) {
+                for (int e = 0; e < m; e++) {
+                    out.putDouble(graph.weight(e));
+                }
+            }
+            if (graph.hasPositions()) {
+                for (int i = 0; i < n; i++) {
+                    out.putDouble(graph.x(i));
+                }
+                for (int i = 0; i < n; i++) {
+                    out.putDouble(graph.y(i));
+                }
+            }
+            for (byte[] label : encoded) {
+                out.put(label);
+            }
+            out.flush();
+
+            // The header goes in last, once the checksum of the body is known
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(flags).putInt(n).putInt(m)
+                    .putInt((int) labelBytes).putLong(out.checksum.getValue()).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        }
+    }
+
+    // Makes a rename in the directory durable. Windows cannot open a directory as a
+    // channel; its renames are durable once they return.
+    static void syncDirectory(Path dir) throws IOException {
+        if (System.getProperty("os.name").startsWith("Windows")) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    public static GraphSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Not a graph snapshot: file is too short");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining()) {
+                channel.read(buffer, buffer.position());
+            }
+            buffer.flip();
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a graph snapshot: bad magic number");
+            }
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot format version: " + version);
+            }
+            int flags = buffer.getInt();
+            int n = buffer.getInt();
+            int m = buffer.getInt();
+            int labelBytes = buffer.getInt();
+            long checksum = buffer.getLong();
+            boolean weighted = (flags & FLAG_WEIGHTED) != 0;
+            boolean positioned = (flags & FLAG_POSITIONS) != 0;
+
+            long expectedSize = HEADER_SIZE + 4L * (2L * (n + 1) + 2L * m + n)
+                    + (weighted ? 8L * m : 0) + (positioned ? 16L * n : 0) + labelBytes;
+            if (n < 0 || m < 0 || labelBytes < 0 || expectedSize != size) {
+                throw new IOException("Corrupt snapshot: expected " + expectedSize + " bytes but found " + size);
+            }
+
+            ChunkReader in = new ChunkReader(channel);
+            int[] offsets = in.ints(n + 1);
+            int[] targets = in.ints(m);
+            int[] inOffsets = in.ints(n + 1);
+            int[] sources = in.ints(m);
+            int[] labelEnds = in.ints(n);
+            double[] weights = weighted ? in.doubles(m) : null;
+            double[] xs = positioned ? in.doubles(n) : null;
+            double[] ys = positioned ? in.doubles(n) : null;
+            byte[] bytes = in.bytes(labelBytes);
+            if (in.checksum.getValue() != checksum) {
+                throw new IOException("Corrupt snapshot: checksum mismatch");
+            }
+
+            String[] labels = new String[n];
+            Map<String, Integer> ids = new HashMap<>(n * 2);
+            int start = 0;
+            for (int i = 0; i < n; i++) {
+                labels[i] = new String(bytes, start, labelEnds[i] - start, StandardCharsets.UTF_8);
+                ids.put(labels[i], i);
+                start = labelEnds[i];
+            }
+            return new GraphSnapshot(labels, ids, offsets, targets, weights, inOffsets, sources, xs, ys);
+        }
+    }
+
+    // Reads the body through one reused buffer, checksumming each slice as it is consumed.
+    // Unlike a single memory map this has no 2 GB limit on the file.
+    private static final class ChunkReader {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C checksum = new CRC32C();
+
+        ChunkReader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            channel.position(HEADER_SIZE);
+            buffer.limit(0);
+        }
+
+        int[] ints(int count) throws IOException {
+            int[] values = new int[count];
+            for (int done = 0; done < count; ) {
+                ensure(4);
+                int batch = Math.min(buffer.remaining() / 4, count - done);
+                buffer.asIntBuffer().get(values, done, batch);
+                consume(4 * batch);
+                done += batch;
+            }
+            return values;
+        }
+
+        double[] doubles(int count) throws IOException {
+            double[] values = new double[count];
+            for (int done = 0; done < count; ) {
+                ensure(8);
+                int batch = Math.min(buffer.remaining() / 8, count - done);
+                buffer.asDoubleBuffer().get(values, done, batch);
+                consume(8 * batch);
+                done += batch;
+            }
+            return values;
+        }
+
+        byte[] bytes(int count) throws IOException {
+            byte[] values = new byte[count];
+            for (int done = 0; done < count; ) {
+                ensure(1);
+                int batch = Math.min(buffer.remaining(), count - done);
+                buffer.duplicate().get(values, done, batch);
+                consume(batch);
+                done += batch;
+            }
+            return values;
+        }
+
+        private void consume(int bytes) {
+            ByteBuffer slice = buffer.duplicate();
+            slice.limit(slice.position() + bytes);
+            checksum.update(slice);
+            buffer.position(buffer.position() + bytes);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            buffer.compact();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            if (buffer.remaining() < bytes) {
+                throw new IOException("Corrupt snapshot: unexpected end of file");
+            }
+        }
+    }
+
+    // Streams the body through one reused buffer, checksumming each chunk as it is written
+    private static final class ChunkWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C checksum = new CRC32C();
+
+        ChunkWriter(FileChannel channel) throws IOException {
+            this.channel = channel;
+            channel.position(HEADER_SIZE);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int count = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, count);
+                offset += count;
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            checksum.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+import java.util.Arrays;
+
+// 4-ary min-heap over int ids in [0, capacity) with double keys and decrease-key.
+// Everything lives in primitive arrays so priority-queue searches never box entries.
+// Positions are epoch-stamped like SearchContext's visited marks, so clear() is O(1)
+// and one heap can be reused across searches.
+public class IndexedMinHeap {
+    private static final int ARITY = 4;
+
+    private final int[] heap;
+    private final int[] position; // Index of each id in heap, or -1 if absent
+    private final int[] positionEpoch; // position[id] is only valid when this equals epoch
+    private final double[] keys;
+    private int epoch = 1;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.positionEpoch = new int[capacity];
+        this.keys = new double[capacity];
+    }
+
+    public int capacity() {
+        return heap.length;
+    }
+
+    // Empties the heap
+    public void clear() {
+        size = 0;
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(positionEpoch, 0);
+            epoch = 0;
+        }
+        epoch++;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int id) {
+        return positionEpoch[id] == epoch && position[id] >= 0;
+    }
+
+    public double key(int id) {
+        return keys[id];
+    }
+
+    // Inserts the id, or lowers its key if it is already queued with a larger one
+    public void insertOrDecrease(int id, double key) {
+        if (!contains(id)) {
+            positionEpoch[id] = epoch;
+            heap[size] = id;
+            position[id] = size;
+            keys[id] = key;
+            siftUp(size++);
+        } else if (key < keys[id]) {
+            keys[id] = key;
+            siftUp(position[id]);
+        }
+    }
+
+    public int pollMin() {
+        int min = heap[0];
+        position[min] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    private void siftUp(int index) {
+        int id = heap[index];
+        double key = keys[id];
+        while (index > 0) {
+            int parent = (index - 1) / ARITY;
+            int parentId = heap[parent];
+            if (keys[parentId] <= key) {
+                break;
+            }
+            heap[index] = parentId;
+            position[parentId] = index;
+            index = parent;
+        }
+        heap[index] = id;
+        position[id] = index;
+    }
+
+    private void siftDown(int index) {
+        int id = heap[index];
+        double key = keys[id];
+        while (true) {
+            int first = index * ARITY + 1;
+            if (first >= size) {
+                break;
+            }
+            int best = first;
+            int last = Math.min(first + ARITY, size);
+            for (int child = first + 1; child < last; child++) {
+                if (keys[heap[child]] < keys[heap[best]]) {
+                    best = child;
+                }
+            }
+            if (keys[heap[best]] >= key) {
+                break;
+            }
+            heap[index] = heap[best];
+            position[heap[index]] = index;
+            index = best;
+        }
+        heap[index] = id;
+        position[id] = index;
+    }
+}
@@ -0,0 +1,77 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Open-addressing map from raw UTF-8 label bytes to dense ids in first-seen order.
+// Lookups of known labels allocate nothing; a String is created once per new label.
+final class LabelDictionary {
+    private int[] slots = new int[1 << 10]; // id + 1, or 0 when empty
+    private byte[][] keys = new byte[1 << 9][];
+    private int[] hashes = new int[1 << 9];
+    private String[] labels = new String[1 << 9];
+    private int size;
+
+    int idOf(byte[] bytes, int offset, int length) {
+        int hash = hash(bytes, offset, length);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                return insert(slot, bytes, offset, length, hash);
+            }
+            int id = entry - 1;
+            if (hashes[id] == hash && Arrays.equals(keys[id], 0, keys[id].length, bytes, offset, offset + length)) {
+                return id;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    String label(int id) {
+        return labels[id];
+    }
+
+    byte[] key(int id) {
+        return keys[id];
+    }
+
+    private int insert(int slot, byte[] bytes, int offset, int length, int hash) {
+        int id = size;
+        if (id == keys.length) {
+            keys = Arrays.copyOf(keys, id * 2);
+            hashes = Arrays.copyOf(hashes, id * 2);
+            labels = Arrays.copyOf(labels, id * 2);
+        }
+        keys[id] = Arrays.copyOfRange(bytes, offset, offset + length);
+        hashes[id] = hash;
+        labels[id] = new String(bytes, offset, length, StandardCharsets.UTF_8);
+        slots[slot] = id + 1;
+        if (++size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        int[] grown = new int[slots.length * 2];
+        int mask = grown.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (grown[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            grown[slot] = id + 1;
+        }
+        slots = grown;
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int h = 0;
+        for (int i = offset; i < offset + length; i++) {
+            h = 31 * h + bytes[i];
+        }
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,350 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Replays a recorded workload against a GraphManager and reports throughput and
+// latency percentiles per operation type.
+//
+// Usage: java -cp <jar> LoadTest <graph-file> <workload-file> [options]
+//   --format auto|dot|dot-streaming|edge-list|snapshot   how to load the graph (default auto)
+//   --workers N      concurrent workers (default 1)
+//   --rate R         open loop at R operations/second in total; latency is measured
+//                    from each operation's scheduled start, so queueing delay counts
+//                    (default: closed loop, each worker issues its next operation
+//                    as soon as the previous one completes)
+//   --duration S     keep cycling through the workload for S seconds (default: one pass)
+//
+// Workload lines ('#' starts a comment):
+//   search <src> <dst> [ALGORITHM]     (default BFS)
+//   addNode <label>
+//   addEdge <src> <dst> [weight]
+//   removeNode <label>
+//   removeEdge <src> <dst>
+public class LoadTest {
+    public enum OperationType {
+        SEARCH, ADD_NODE, ADD_EDGE, REMOVE_NODE, REMOVE_EDGE
+    }
+
+    public record Operation(OperationType type, String first, String second, Algorithm algorithm, Double weight) {
+    }
+
+    public static void main(String[] args) {
+        try {
+            Options options = Options.parse(args);
+            GraphManager manager = new GraphManager();
+            long loadStart = System.nanoTime();
+            if (!load(manager, options.graphFile, options.format)) {
+                System.err.println("Failed to load graph: " + options.graphFile);
+                System.exit(1);
+            }
+            System.out.printf(Locale.ROOT, "Loaded %d nodes and %d edges in %.1f ms%n", manager.getNodeCount(),
+                    manager.getEdgeCount(), (System.nanoTime() - loadStart) / 1e6);
+
+            List<Operation> workload = parseWorkload(Path.of(options.workloadFile));
+            System.out.println("Replaying " + workload.size() + " operations with " + options.workers + " worker(s)"
+                    + (options.rate > 0 ? " at " + options.rate + " ops/s" : " in a closed loop"));
+            Report report = replay(manager, workload, options.workers, options.rate, options.durationNanos);
+            System.out.print(report);
+            for (AlgorithmStats stats : manager.getSearchMetrics().getAlgorithms()) {
+                if (stats.getQueryCount() > 0) {
+                    System.out.println(stats);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LoadTest <graph-file> <workload-file> [--format auto|dot|dot-streaming|"
+                    + "edge-list|snapshot] [--workers N] [--rate OPS_PER_SECOND] [--duration SECONDS]");
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Error reading workload: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    static boolean load(GraphManager manager, String file, String format) {
+        if (format.equals("auto")) {
+            String name = file.toLowerCase(Locale.ROOT);
+            format = name.endsWith(".snap") ? "snapshot"
+                    : name.endsWith(".dot") || name.endsWith(".gv") ? "dot-streaming" : "edge-list";
+        }
+        return switch (format) {
+            case "dot" -> manager.parseGraph(file);
+            case "dot-streaming" -> manager.parseGraphStreaming(file);
+            case "edge-list" -> manager.importEdgeList(file);
+            case "snapshot" -> manager.loadSnapshot(file);
+            default -> throw new IllegalArgumentException("Unknown graph format: " + format);
+        };
+    }
+
+    public static List<Operation> parseWorkload(Path path) throws IOException {
+        List<Operation> operations = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    operations.add(parseOperation(line.split("\\s+")));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+        }
+        return operations;
+    }
+
+    private static Operation parseOperation(String[] fields) {
+        String name = fields[0];
+        switch (name) {
+            case "search" -> {
+                requireFields(fields, 3, 4);
+                Algorithm algorithm = fields.length == 4 ? Algorithm.valueOf(fields[3].toUpperCase(Locale.ROOT))
+                        : Algorithm.BFS;
+                return new Operation(OperationType.SEARCH, fields[1], fields[2], algorithm, null);
+            }
+            case "addNode" -> {
+                requireFields(fields, 2, 2);
+                return new Operation(OperationType.ADD_NODE, fields[1], null, null, null);
+            }
+            case "addEdge" -> {
+                requireFields(fields, 3, 4);
+                Double weight = fields.length == 4 ? Double.valueOf(fields[3]) : null;
+                return new Operation(OperationType.ADD_EDGE, fields[1], fields[2], null, weight);
+            }
+            case "removeNode" -> {
+                requireFields(fields, 2, 2);
+                return new Operation(OperationType.REMOVE_NODE, fields[1], null, null, null);
+            }
+            case "removeEdge" -> {
+                requireFields(fields, 3, 3);
+                return new Operation(OperationType.REMOVE_EDGE, fields[1], fields[2], null, null);
+            }
+            default -> throw new IllegalArgumentException("Unknown operation: " + name);
+        }
+    }
+
+    private static void requireFields(String[] fields, int min, int max) {
+        if (fields.length < min || fields.length > max) {
+            throw new IllegalArgumentException("Wrong number of arguments for " + fields[0]);
+        }
+    }
+
+    // Runs the workload with the given number of workers. rate <= 0 means closed loop;
+    // durationNanos <= 0 means a single pass over the workload.
+    public static Report replay(GraphManager manager, List<Operation> workload, int workers, double rate,
+                                long durationNanos) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Workers must be at least 1");
+        }
+        if (workload.isEmpty()) {
+            throw new IllegalArgumentException("Workload is empty");
+        }
+        AtomicLong next = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = durationNanos > 0 ? start + durationNanos : Long.MAX_VALUE;
+        long limit = durationNanos > 0 ? Long.MAX_VALUE : workload.size();
+        double intervalNanos = rate > 0 ? TimeUnit.SECONDS.toNanos(1) / rate : 0;
+
+        Worker[] running = new Worker[workers];
+        Thread[] threads = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            running[i] = new Worker(manager, workload, next, start, deadline, limit, intervalNanos);
+            threads[i] = new Thread(running[i], "load-test-" + i);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        Report report = new Report(System.nanoTime() - start);
+        for (Worker worker : running) {
+            report.add(worker);
+        }
+        return report;
+    }
+
+    private static final class Worker implements Runnable {
+        private final GraphManager manager;
+        private final List<Operation> workload;
+        private final AtomicLong next;
+        private final long start;
+        private final long deadline;
+        private final long limit;
+        private final double intervalNanos;
+        final Map<OperationType, LatencyHistogram> latencies = new EnumMap<>(OperationType.class);
+        final Map<OperationType, Long> errors = new EnumMap<>(OperationType.class);
+
+        Worker(GraphManager manager, List<Operation> workload, AtomicLong next, long start, long deadline,
+               long limit, double intervalNanos) {
+            this.manager = manager;
+            this.workload = workload;
+            this.next = next;
+            this.start = start;
+            this.deadline = deadline;
+            this.limit = limit;
+            this.intervalNanos = intervalNanos;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                long sequence = next.getAndIncrement();
+                if (sequence >= limit) {
+                    return;
+                }
+                long begin;
+                if (intervalNanos > 0) {
+                    begin = start + (long) (sequence * intervalNanos);
+                    if (begin >= deadline) {
+                        return;
+                    }
+                    for (long wait = begin - System.nanoTime(); wait > 0; wait = begin - System.nanoTime()) {
+                        LockSupport.parkNanos(wait);
+                    }
+                } else {
+                    begin = System.nanoTime();
+                    if (begin >= deadline) {
+                        return;
+                    }
+                }
+
+                Operation operation = workload.get((int) (sequence % workload.size()));
+                try {
+                    execute(operation);
+                } catch (RuntimeException e) {
+                    errors.merge(operation.type(), 1L, Long::sum);
+                }
+                latencies.computeIfAbsent(operation.type(), k -> new LatencyHistogram())
+                        .record(System.nanoTime() - begin);
+            }
+        }
+
+        // GraphManager is thread-safe: searches run on published snapshots, mutations are serialized
+        private void execute(Operation operation) {
+            switch (operation.type()) {
+                case SEARCH -> manager.searchPath(operation.first(), operation.second(), operation.algorithm());
+                case ADD_NODE -> manager.addNode(operation.first());
+                case ADD_EDGE -> {
+                    if (operation.weight() == null) {
+                        manager.addEdge(operation.first(), operation.second());
+                    } else {
+                        manager.addEdge(operation.first(), operation.second(), operation.weight());
+                    }
+                }
+                case REMOVE_NODE -> manager.removeNode(operation.first());
+                case REMOVE_EDGE -> manager.removeEdge(operation.first(), operation.second());
+            }
+        }
+    }
+
+    public static final class Report {
+        private final long elapsedNanos;
+        private final Map<OperationType, LatencyHistogram> latencies = new EnumMap<>(OperationType.class);
+        private final Map<OperationType, Long> errors = new EnumMap<>(OperationType.class);
+
+        Report(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        private void add(Worker worker) {
+            worker.latencies.forEach((type, histogram) ->
+                    latencies.computeIfAbsent(type, k -> new LatencyHistogram()).merge(histogram));
+            worker.errors.forEach((type, count) -> errors.merge(type, count, Long::sum));
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public long getOperationCount() {
+            return latencies.values().stream().mapToLong(LatencyHistogram::getCount).sum();
+        }
+
+        // Latencies of one operation type in nanoseconds; empty if none ran
+        public LatencyHistogram getLatencies(OperationType type) {
+            return latencies.getOrDefault(type, new LatencyHistogram());
+        }
+
+        public long getErrorCount(OperationType type) {
+            return errors.getOrDefault(type, 0L);
+        }
+
+        public double getThroughput() {
+            return getOperationCount() / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.ROOT, "%d operations in %.3f s (%.1f ops/s)%n",
+                    getOperationCount(), elapsedNanos / 1e9, getThroughput()));
+            sb.append(String.format(Locale.ROOT, "%-12s %10s %8s %12s %10s %10s %10s %10s %10s%n", "operation",
+                    "count", "errors", "ops/s", "mean us", "p50 us", "p99 us", "p999 us", "max us"));
+            latencies.forEach((type, histogram) -> sb.append(String.format(Locale.ROOT,
+                    "%-12s %10d %8d %12.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n", type, histogram.getCount(),
+                    getErrorCount(type), histogram.getCount() / (elapsedNanos / 1e9), histogram.getMean() / 1e3,
+                    histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(99) / 1e3,
+                    histogram.getValueAtPercentile(99.9) / 1e3, histogram.getMax() / 1e3)));
+            return sb.toString();
+        }
+    }
+
+    private static final class Options {
+        String graphFile;
+        String workloadFile;
+        String format = "auto";
+        int workers = 1;
+        double rate;
+        long durationNanos;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            List<String> positional = new ArrayList<>();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--")) {
+                    positional.add(arg);
+                    continue;
+                }
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                }
+                String value = args[++i];
+                try {
+                    switch (arg) {
+                        case "--format" -> options.format = value;
+                        case "--workers" -> options.workers = Integer.parseInt(value);
+                        case "--rate" -> options.rate = Double.parseDouble(value);
+                        case "--duration" -> options.durationNanos = (long) (Double.parseDouble(value) * 1e9);
+                        default -> throw new IllegalArgumentException("Unknown option: " + arg);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid value for " + arg + ": " + value);
+                }
+            }
+            if (positional.size() != 2) {
+                throw new IllegalArgumentException("Expected a graph file and a workload file");
+            }
+            options.graphFile = positional.get(0);
+            options.workloadFile = positional.get(1);
+            return options;
+        }
+    }
+}
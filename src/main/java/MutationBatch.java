@@ -0,0 +1,77 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// Changes collected by GraphManager.batch() and applied by commit() in one step: the whole
+// batch is validated first, then applied under a single lock with one version bump, one
+// journal record and one published version. Changes apply in the order
+// they were added, with the same meaning as the single GraphManager calls; if any would
+// fail (removing an edge between nodes that do not exist at that point), nothing is applied.
+public final class MutationBatch {
+    private final GraphManager manager;
+    private final List<MutationJournal.Entry> changes = new ArrayList<>();
+    private boolean committed;
+
+    MutationBatch(GraphManager manager) {
+        this.manager = manager;
+    }
+
+    public MutationBatch addNode(String label) {
+        return add(MutationJournal.ADD_NODE, label, null, Double.NaN);
+    }
+
+    public MutationBatch addNodes(String... labels) {
+        for (String label : labels) {
+            addNode(label);
+        }
+        return this;
+    }
+
+    public MutationBatch addEdge(String srcLabel, String dstLabel) {
+        return add(MutationJournal.ADD_EDGE, srcLabel, dstLabel, Double.NaN);
+    }
+
+    public MutationBatch addEdge(String srcLabel, String dstLabel, double weight) {
+        return add(MutationJournal.ADD_WEIGHTED_EDGE, srcLabel, dstLabel, weight);
+    }
+
+    public MutationBatch removeNode(String label) {
+        return add(MutationJournal.REMOVE_NODE, label, null, Double.NaN);
+    }
+
+    public MutationBatch removeNodes(String... labels) {
+        for (String label : labels) {
+            removeNode(label);
+        }
+        return this;
+    }
+
+    public MutationBatch removeEdge(String srcLabel, String dstLabel) {
+        return add(MutationJournal.REMOVE_EDGE, srcLabel, dstLabel, Double.NaN);
+    }
+
+    public int size() {
+        return changes.size();
+    }
+
+    // Applies the batch; returns how many changes took effect (adding an existing node or
+    // edge, or removing a missing one, is a no-op as with the single calls)
+    public int commit() {
+        if (committed) {
+            throw new IllegalStateException("Batch has already been committed");
+        }
+        committed = true;
+        return manager.applyBatch(changes);
+    }
+
+    private MutationBatch add(byte type, String first, String second, double weight) {
+        if (committed) {
+            throw new IllegalStateException("Batch has already been committed");
+        }
+        boolean edge = type != MutationJournal.ADD_NODE && type != MutationJournal.REMOVE_NODE;
+        if (first == null || (edge && second == null)) {
+            throw new IllegalArgumentException("Node labels cannot be null");
+        }
+        changes.add(new MutationJournal.Entry(type, first, second, weight));
+        return this;
+    }
+}
@@ -0,0 +1,444 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+// Append-only binary log of graph mutations. Each record is
+//
+//   [int body length][int CRC32C of body][byte type][fields]
+//
+// with labels as (int length, UTF-8 bytes) and weights as doubles, all little-endian,
+// or a BATCH record whose fields are an entry count and that many (type, fields) entries,
+// after a 16-byte header (magic, format version, generation). The generation ties the
+// log to the checkpoint it extends; recovery ignores a log from an older generation.
+//
+// Appends only copy into memory and return a ticket (the log's logical length).
+// Durability is group-committed: a writer waiting on its ticket either finds an fsync
+// in flight and waits for it, or becomes the leader and writes and fsyncs everything
+// appended so far, so concurrent writers share one fsync. With a sync interval, a
+// background thread fsyncs periodically instead and nobody waits.
+public class MutationJournal implements Closeable {
+    static final byte ADD_NODE = 1;
+    static final byte ADD_EDGE = 2;
+    static final byte ADD_WEIGHTED_EDGE = 3;
+    static final byte REMOVE_NODE = 4;
+    static final byte REMOVE_EDGE = 5;
+    static final byte BATCH = 6;
+
+    private static final int MAGIC = 0x4A47574C; // "JGWL"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_HEADER = 8;
+    private static final int MAX_RECORD = 1 << 26;
+
+    // Receives replayed records in log order; second is null for node records
+    interface Handler {
+        void apply(byte type, String first, String second, double weight);
+    }
+
+    // One mutation of a batch, in the same shape the handler receives
+    record Entry(byte type, String first, String second, double weight) {}
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long syncIntervalNanos;
+    private final Thread flusher;
+    private final CRC32C crc = new CRC32C();
+
+    private long generation;
+    private ByteBuffer pending = newBuffer(64 << 10);
+    private ByteBuffer spare = newBuffer(64 << 10);
+    private long appended; // Logical bytes appended since open; tickets are values of this
+    private long durable;
+    private long size; // Current file length including unsynced records
+    private boolean syncing;
+    private boolean closed;
+    private IOException failure;
+
+    private MutationJournal(Path file, FileChannel channel, long generation, long size, long syncIntervalNanos) {
+        this.file = file;
+        this.channel = channel;
+        this.generation = generation;
+        this.size = size;
+        this.syncIntervalNanos = syncIntervalNanos;
+        if (syncIntervalNanos > 0) {
+            flusher = new Thread(this::flushPeriodically, "journal-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+    }
+
+    // Opens the log for appending. A log of the given generation is replayed into the
+    // handler first and cut back to its last intact record (a crash can tear the tail);
+    // a missing or older log is replaced by an empty one of this generation.
+    static MutationJournal recover(Path file, long generation, long syncIntervalNanos, Handler handler)
+            throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long end = -1;
+            if (channel.size() >= HEADER_SIZE) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                channel.read(header, 0);
+                header.flip();
+                if (header.getInt() == MAGIC && header.getInt() == FORMAT_VERSION) {
+                    long logGeneration = header.getLong();
+                    if (logGeneration > generation) {
+                        throw new IOException("Journal generation " + logGeneration
+                                + " is newer than checkpoint generation " + generation);
+                    }
+                    if (logGeneration == generation) {
+                        end = replay(channel, handler);
+                    }
+                }
+            }
+            if (end < 0) {
+                writeHeader(channel, generation);
+                end = HEADER_SIZE;
+            } else if (end < channel.size()) {
+                channel.truncate(end);
+                channel.force(true);
+            }
+            channel.position(end);
+            return new MutationJournal(file, channel, generation, end, syncIntervalNanos);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Feeds every intact record to the handler; returns the offset just past the last one
+    private static long replay(FileChannel channel, Handler handler) throws IOException {
+        long fileSize = channel.size();
+        ByteBuffer buffer = newBuffer(1 << 20);
+        CRC32C crc = new CRC32C();
+        long position = HEADER_SIZE;
+        channel.position(position);
+        buffer.limit(0);
+        while (true) {
+            if (buffer.remaining() < RECORD_HEADER && !fill(channel, buffer, RECORD_HEADER)) {
+                return position;
+            }
+            int length = buffer.getInt(buffer.position());
+            int checksum = buffer.getInt(buffer.position() + 4);
+            if (length <= 0 || length > MAX_RECORD || position + RECORD_HEADER + length > fileSize) {
+                return position;
+            }
+            if (buffer.capacity() < RECORD_HEADER + length) {
+                ByteBuffer larger = newBuffer(RECORD_HEADER + length);
+                larger.put(buffer).flip();
+                buffer = larger;
+            }
+            if (buffer.remaining() < RECORD_HEADER + length && !fill(channel, buffer, RECORD_HEADER + length)) {
+                return position;
+            }
+            buffer.position(buffer.position() + RECORD_HEADER);
+            crc.reset();
+            crc.update(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+            if ((int) crc.getValue() != checksum) {
+                return position;
+            }
+            int recordEnd = buffer.position() + length;
+            List<Entry> entries = new ArrayList<>();
+            boolean wellFormed;
+            if (buffer.get(buffer.position()) == BATCH) {
+                buffer.get();
+                int count = recordEnd - buffer.position() >= 4 ? buffer.getInt() : -1;
+                wellFormed = count >= 0;
+                for (int i = 0; i < count && wellFormed; i++) {
+                    wellFormed = readEntry(buffer, recordEnd, entries);
+                }
+            } else {
+                wellFormed = readEntry(buffer, recordEnd, entries);
+            }
+            if (!wellFormed || buffer.position() != recordEnd) {
+                throw new IOException("Malformed journal record at byte " + position);
+            }
+            // Decoded in full first, so a batch is applied whole or (if malformed) not at all
+            for (Entry entry : entries) {
+                handler.apply(entry.type(), entry.first(), entry.second(), entry.weight());
+            }
+            position += RECORD_HEADER + length;
+        }
+    }
+
+    private static boolean readEntry(ByteBuffer buffer, int recordEnd, List<Entry> entries) {
+        if (buffer.position() >= recordEnd) {
+            return false;
+        }
+        byte type = buffer.get();
+        if (type < ADD_NODE || type > REMOVE_EDGE) {
+            return false;
+        }
+        String first = readString(buffer, recordEnd);
+        if (first == null) {
+            return false;
+        }
+        String second = null;
+        double weight = Double.NaN;
+        if (hasSecond(type)) {
+            second = readString(buffer, recordEnd);
+            if (second == null) {
+                return false;
+            }
+        }
+        if (type == ADD_WEIGHTED_EDGE) {
+            if (recordEnd - buffer.position() < 8) {
+                return false;
+            }
+            weight = buffer.getDouble();
+        }
+        entries.add(new Entry(type, first, second, weight));
+        return true;
+    }
+
+    private static boolean hasSecond(byte type) {
+        return type == ADD_EDGE || type == ADD_WEIGHTED_EDGE || type == REMOVE_EDGE;
+    }
+
+    // Tops the buffer up to at least need bytes; false at end of file
+    private static boolean fill(FileChannel channel, ByteBuffer buffer, int need) throws IOException {
+        buffer.compact();
+        while (buffer.position() < need) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    private static String readString(ByteBuffer buffer, int recordEnd) {
+        if (recordEnd - buffer.position() < 4) {
+            return null;
+        }
+        int length = buffer.getInt();
+        if (length < 0 || length > recordEnd - buffer.position()) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static void writeHeader(FileChannel channel, long generation) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(generation).flip();
+        channel.truncate(0);
+        channel.write(header, 0);
+        channel.force(true);
+    }
+
+    private static ByteBuffer newBuffer(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Buffers one record and returns the ticket to wait on for its durability
+    synchronized long append(byte type, String first, String second, double weight) throws IOException {
+        int start = beginRecord();
+        putEntry(type, first, second, weight);
+        return endRecord(start);
+    }
+
+    // Buffers the entries as a single record, so recovery replays all of them or none
+    synchronized long appendBatch(List<Entry> entries) throws IOException {
+        int start = beginRecord();
+        reserve(5);
+        pending.put(BATCH).putInt(entries.size());
+        for (Entry entry : entries) {
+            putEntry(entry.type(), entry.first(), entry.second(), entry.weight());
+        }
+        return endRecord(start);
+    }
+
+    private int beginRecord() throws IOException {
+        if (closed) {
+            throw new IOException("Journal is closed");
+        }
+        if (failure != null) {
+            throw new IOException("Journal write failed", failure); // e.g. by the background flusher
+        }
+        reserve(RECORD_HEADER);
+        int start = pending.position();
+        pending.putInt(0).putInt(0);
+        return start;
+    }
+
+    private void putEntry(byte type, String first, String second, double weight) {
+        byte[] a = first.getBytes(StandardCharsets.UTF_8);
+        byte[] b = second == null ? null : second.getBytes(StandardCharsets.UTF_8);
+        reserve(1 + 4 + a.length + (b == null ? 0 : 4 + b.length) + 8);
+        pending.put(type).putInt(a.length).put(a);
+        if (b != null) {
+            pending.putInt(b.length).put(b);
+        }
+        if (type == ADD_WEIGHTED_EDGE) {
+            pending.putDouble(weight);
+        }
+    }
+
+    // Fills in the length and checksum of the record begun at start
+    private long endRecord(int start) throws IOException {
+        int length = pending.position() - start - RECORD_HEADER;
+        if (length > MAX_RECORD) {
+            pending.position(start);
+            throw new IOException("Journal record of " + length + " bytes exceeds the limit of " + MAX_RECORD);
+        }
+        crc.reset();
+        crc.update(pending.array(), pending.arrayOffset() + start + RECORD_HEADER, length);
+        pending.putInt(start, length).putInt(start + 4, (int) crc.getValue());
+        appended += RECORD_HEADER + length;
+        size += RECORD_HEADER + length;
+        return appended;
+    }
+
+    private void reserve(int bytes) {
+        if (pending.remaining() < bytes) {
+            ByteBuffer larger = newBuffer(Math.max(pending.capacity() * 2, pending.position() + bytes));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+    }
+
+    // Blocks until the record with this ticket is on disk (returns at once in interval mode)
+    void awaitDurable(long ticket) throws IOException {
+        if (syncIntervalNanos == 0) {
+            sync(ticket);
+        }
+    }
+
+    // Writes and fsyncs everything appended so far
+    public void sync() throws IOException {
+        long target;
+        synchronized (this) {
+            target = appended;
+        }
+        sync(target);
+    }
+
+    private void sync(long ticket) throws IOException {
+        while (true) {
+            ByteBuffer batch;
+            long target;
+            synchronized (this) {
+                if (failure != null) {
+                    throw new IOException("Journal write failed", failure);
+                }
+                if (durable >= Math.min(ticket, appended)) {
+                    return; // A ticket past appended was issued by an earlier journal, closed and synced
+                }
+                if (syncing) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted waiting for journal sync");
+                    }
+                    continue;
+                }
+                // Lead this round: take the whole pending batch and let appends go to the spare
+                syncing = true;
+                batch = pending;
+                pending = spare;
+                target = appended;
+            }
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                    syncing = false;
+                    notifyAll();
+                }
+                throw e;
+            }
+            synchronized (this) {
+                batch.clear();
+                spare = batch;
+                durable = target;
+                syncing = false;
+                notifyAll();
+            }
+        }
+    }
+
+    private void flushPeriodically() {
+        while (true) {
+            LockSupport.parkNanos(syncIntervalNanos);
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+            }
+            try {
+                sync();
+            } catch (IOException e) {
+                return; // Recorded in failure; the next append or sync reports it
+            }
+        }
+    }
+
+    // Starts an empty log for a new checkpoint generation; the caller must keep
+    // appends out while this runs
+    void reset(long newGeneration) throws IOException {
+        sync();
+        synchronized (this) {
+            writeHeader(channel, newGeneration);
+            channel.position(HEADER_SIZE);
+            generation = newGeneration;
+            size = HEADER_SIZE;
+        }
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    // Bytes in the log including records not yet synced
+    public synchronized long size() {
+        return size;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+        }
+        try {
+            sync();
+        } finally {
+            synchronized (this) {
+                closed = true;
+            }
+            if (flusher != null) {
+                LockSupport.unpark(flusher);
+            }
+            channel.close();
+        }
+    }
+}
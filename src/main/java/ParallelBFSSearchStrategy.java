@@ -0,0 +1,227 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Level-synchronous BFS that splits each frontier across a ForkJoinPool. Small
+// frontiers are expanded top-down (push along out-edges); once the frontier's
+// edges outweigh the unexplored ones, unvisited nodes instead pull from the
+// frontier over their in-edges (bottom-up), which skips most edge checks.
+public class ParallelBFSSearchStrategy implements SearchStrategy {
+    private static final int GRAIN = 1024; // Nodes per leaf task
+    private static final int ALPHA = 14;   // Switch to bottom-up when frontier edges > unexplored / ALPHA
+    private static final int BETA = 24;    // Switch back to top-down when frontier < nodes / BETA
+
+    private final ForkJoinPool pool;
+
+    public ParallelBFSSearchStrategy() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelBFSSearchStrategy(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public GraphPath findPath(GraphSnapshot graph, String srcLabel, String dstLabel, SearchStats stats) {
+        // Find source and destination nodes
+        int src = graph.idOf(srcLabel);
+        int dst = graph.idOf(dstLabel);
+
+        if (src < 0 || dst < 0) {
+            throw new IllegalArgumentException("Source or destination node does not exist");
+        }
+
+        Search search = new Search(graph, src);
+        int visitedCount = search.run(dst, stats);
+        if (!search.visited.get(dst)) {
+            return null;
+        }
+        GraphPath path = GraphPath.fromParents(graph, search.parent, dst);
+        path.setExpandedNodes(visitedCount);
+        return path;
+    }
+
+    // Per-query state shared by the step tasks of one search
+    private final class Search {
+        final GraphSnapshot graph;
+        final int[] parent;
+        final AtomicBitSet visited;
+        int[] frontier;
+        int frontierSize;
+        int[] next;
+        final AtomicInteger nextSize = new AtomicInteger();
+        final LongAdder bottomUpScans = new LongAdder();
+        long[] inFrontier;
+
+        Search(GraphSnapshot graph, int src) {
+            int n = graph.nodeCount();
+            this.graph = graph;
+            this.parent = new int[n];
+            this.visited = new AtomicBitSet(n);
+            this.frontier = new int[n];
+            this.next = new int[n];
+            parent[src] = -1;
+            visited.trySet(src);
+            frontier[0] = src;
+            frontierSize = 1;
+        }
+
+        // Runs levels until dst is reached or the frontier empties; returns nodes visited
+        int run(int dst, SearchStats stats) {
+            int n = graph.nodeCount();
+            int visitedCount = 1;
+            long unexploredEdges = graph.edgeCount();
+            boolean bottomUp = false;
+
+            while (frontierSize > 0 && !visited.get(dst)) {
+                stats.frontier(frontierSize);
+                long frontierEdges = 0;
+                for (int i = 0; i < frontierSize; i++) {
+                    frontierEdges += graph.degree(frontier[i]);
+                }
+                unexploredEdges -= frontierEdges;
+                if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                    bottomUp = true;
+                } else if (bottomUp && frontierSize < n / BETA) {
+                    bottomUp = false;
+                }
+
+                nextSize.set(0);
+                if (bottomUp) {
+                    inFrontier = new long[(n + 63) >>> 6];
+                    for (int i = 0; i < frontierSize; i++) {
+                        inFrontier[frontier[i] >>> 6] |= 1L << frontier[i];
+                    }
+                    bottomUpScans.reset();
+                    pool.invoke(new BottomUpStep(0, n));
+                    stats.expand(frontierSize, bottomUpScans.sum());
+                } else {
+                    pool.invoke(new TopDownStep(0, frontierSize));
+                    stats.expand(frontierSize, frontierEdges);
+                }
+
+                int[] swap = frontier;
+                frontier = next;
+                next = swap;
+                frontierSize = nextSize.get();
+                visitedCount += frontierSize;
+            }
+            return visitedCount;
+        }
+
+        // Copies a leaf's discoveries into the shared next frontier with one atomic add
+        void publish(int[] found, int count) {
+            if (count > 0) {
+                System.arraycopy(found, 0, next, nextSize.getAndAdd(count), count);
+            }
+        }
+
+        final class TopDownStep extends RecursiveAction {
+            private final int lo;
+            private final int hi;
+
+            TopDownStep(int lo, int hi) {
+                this.lo = lo;
+                this.hi = hi;
+            }
+
+            @Override
+            protected void compute() {
+                if (hi - lo > GRAIN) {
+                    int mid = (lo + hi) >>> 1;
+                    invokeAll(new TopDownStep(lo, mid), new TopDownStep(mid, hi));
+                    return;
+                }
+                int[] found = new int[64];
+                int count = 0;
+                for (int i = lo; i < hi; i++) {
+                    int current = frontier[i];
+                    for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                        int neighbor = graph.target(e);
+                        if (!visited.get(neighbor) && visited.trySet(neighbor)) {
+                            parent[neighbor] = current;
+                            if (count == found.length) {
+                                found = Arrays.copyOf(found, count * 2);
+                            }
+                            found[count++] = neighbor;
+                        }
+                    }
+                }
+                publish(found, count);
+            }
+        }
+
+        final class BottomUpStep extends RecursiveAction {
+            private final int lo;
+            private final int hi;
+
+            BottomUpStep(int lo, int hi) {
+                this.lo = lo;
+                this.hi = hi;
+            }
+
+            @Override
+            protected void compute() {
+                if (hi - lo > GRAIN) {
+                    int mid = (lo + hi) >>> 1;
+                    invokeAll(new BottomUpStep(lo, mid), new BottomUpStep(mid, hi));
+                    return;
+                }
+                int[] found = new int[64];
+                int count = 0;
+                long scanned = 0;
+                for (int node = lo; node < hi; node++) {
+                    if (visited.get(node)) {
+                        continue;
+                    }
+                    for (int e = graph.inEdgeStart(node), end = graph.inEdgeEnd(node); e < end; e++) {
+                        scanned++;
+                        int source = graph.source(e);
+                        if ((inFrontier[source >>> 6] & (1L << source)) != 0) {
+                            // Only this task looks at node, but its bitset word is shared
+                            visited.trySet(node);
+                            parent[node] = source;
+                            if (count == found.length) {
+                                found = Arrays.copyOf(found, count * 2);
+                            }
+                            found[count++] = node;
+                            break;
+                        }
+                    }
+                }
+                bottomUpScans.add(scanned);
+                publish(found, count);
+            }
+        }
+    }
+
+    private static final class AtomicBitSet {
+        private final AtomicLongArray words;
+
+        AtomicBitSet(int size) {
+            this.words = new AtomicLongArray((size + 63) >>> 6);
+        }
+
+        boolean get(int index) {
+            return (words.get(index >>> 6) & (1L << index)) != 0;
+        }
+
+        // Returns true only for the caller that flipped the bit
+        boolean trySet(int index) {
+            int word = index >>> 6;
+            long bit = 1L << index;
+            while (true) {
+                long current = words.get(word);
+                if ((current & bit) != 0) {
+                    return false;
+                }
+                if (words.compareAndSet(word, current, current | bit)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
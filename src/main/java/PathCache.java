@@ -0,0 +1,112 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded LRU cache of search results. Each entry remembers the graph version it was
+// computed against, so a lookup after any mutation is a miss rather than a stale answer.
+// The first lookup or store at a newer version drops every older entry, so the cache
+// only holds paths of one version (a path keeps its snapshot's label array alive).
+// Eviction is by entry count and by total weight (one unit per path node, minimum 1).
+public class PathCache {
+    record Entry(long version, GraphPath path, int weight) {}
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final LinkedHashMap<PathQuery, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long latestVersion = Long.MIN_VALUE;
+    private long hits;
+    private long misses;
+
+    public PathCache(int maxEntries) {
+        this(maxEntries, Long.MAX_VALUE);
+    }
+
+    public PathCache(int maxEntries, long maxWeight) {
+        if (maxEntries <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("Cache limits must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    // Returns the entry cached for this query at this version, or null on a miss
+    synchronized Entry lookup(PathQuery query, long version) {
+        advanceTo(version);
+        Entry entry = entries.get(query);
+        if (entry != null && entry.version() == version) {
+            hits++;
+            return entry;
+        }
+        if (entry != null) {
+            remove(query, entry);
+        }
+        misses++;
+        return null;
+    }
+
+    synchronized void store(PathQuery query, long version, GraphPath path) {
+        advanceTo(version);
+        if (version < latestVersion) {
+            return; // A search of a newer version raced ahead of this one
+        }
+        Entry previous = entries.get(query);
+        if (previous != null) {
+            remove(query, previous);
+        }
+        Entry entry = new Entry(version, path, path == null ? 1 : Math.max(1, path.length()));
+        entries.put(query, entry);
+        weight += entry.weight();
+        evict();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    private void advanceTo(long version) {
+        if (version <= latestVersion) {
+            return;
+        }
+        latestVersion = version;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.version() < version) {
+                weight -= entry.weight();
+                it.remove();
+            }
+        }
+    }
+
+    private void remove(PathQuery query, Entry entry) {
+        entries.remove(query);
+        weight -= entry.weight();
+    }
+
+    // Drops least-recently-used entries until both limits hold
+    private void evict() {
+        Iterator<Map.Entry<PathQuery, Entry>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && it.hasNext()) {
+            weight -= it.next().getValue().weight();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+// One (src, dst, algorithm) lookup for GraphManager.searchPaths
+public record PathQuery(String src, String dst, Algorithm algorithm) {
+    public PathQuery {
+        if (algorithm == null) {
+            throw new IllegalArgumentException("Algorithm cannot be null");
+        }
+    }
+}
@@ -0,0 +1,359 @@
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Runs many independent random walkers over a snapshot in parallel. Walkers sample
+// the next node straight from the CSR adjacency arrays; on weighted graphs each
+// node's out-edges get a Vose alias table (built once per engine), so a step costs
+// O(1) whatever the degree and edges are taken in proportion to their weight.
+// With a restart probability r, each step jumps back to the source with chance r
+// (and always does from a dead end) instead of following an edge.
+// Walkers are grouped in fixed blocks that each own a SplittableRandom split off a
+// single root, so a seeded run gives the same answer on any number of threads.
+public class RandomWalkEngine {
+    private static final int WALKERS_PER_TASK = 64;
+
+    private final GraphSnapshot graph;
+    private final ForkJoinPool pool;
+    private final double[] aliasProbability; // Null for unweighted graphs
+    private final int[] alias; // Edge offset within the node's range
+
+    private int walkers = 1;
+    private int maxSteps = 1000;
+    private double restartProbability;
+    private boolean seeded;
+    private long seed;
+
+    public RandomWalkEngine(GraphSnapshot graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public RandomWalkEngine(GraphSnapshot graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        if (graph.isWeighted()) {
+            aliasProbability = new double[graph.edgeCount()];
+            alias = new int[graph.edgeCount()];
+            buildAliasTables();
+        } else {
+            aliasProbability = null;
+            alias = null;
+        }
+    }
+
+    public RandomWalkEngine walkers(int walkers) {
+        if (walkers <= 0) {
+            throw new IllegalArgumentException("Walker count must be positive");
+        }
+        this.walkers = walkers;
+        return this;
+    }
+
+    // Steps per walker, restarts included
+    public RandomWalkEngine maxSteps(int maxSteps) {
+        if (maxSteps < 0) {
+            throw new IllegalArgumentException("Step limit cannot be negative");
+        }
+        this.maxSteps = maxSteps;
+        return this;
+    }
+
+    public RandomWalkEngine restartProbability(double restartProbability) {
+        if (!(restartProbability >= 0 && restartProbability < 1)) {
+            throw new IllegalArgumentException("Restart probability must be in [0, 1): " + restartProbability);
+        }
+        this.restartProbability = restartProbability;
+        return this;
+    }
+
+    public RandomWalkEngine seed(long seed) {
+        this.seeded = true;
+        this.seed = seed;
+        return this;
+    }
+
+    GraphSnapshot graph() {
+        return graph;
+    }
+
+    // Shortest walk (since its last restart) that any walker took from src to dst, or null
+    public GraphPath findPath(String srcLabel, String dstLabel) {
+        return findPath(node(srcLabel), node(dstLabel), new SearchStats());
+    }
+
+    GraphPath findPath(int src, int dst, SearchStats stats) {
+        Run run = run(src, dst, true);
+        stats.frontier(walkers);
+        stats.expand(run.totalSteps, run.totalSteps);
+        if (run.best == null) {
+            return null;
+        }
+        GraphPath path = GraphPath.of(graph, run.best);
+        path.setExpandedNodes((int) Math.min(Integer.MAX_VALUE, run.totalSteps));
+        return path;
+    }
+
+    // Distribution of the number of steps each walker needed to first reach dst
+    public HittingTimes hittingTimes(String srcLabel, String dstLabel) {
+        Run run = run(node(srcLabel), node(dstLabel), false);
+        return new HittingTimes(run.hitSteps, run.totalSteps);
+    }
+
+    private int node(String label) {
+        int node = graph.idOf(label);
+        if (node < 0) {
+            throw new IllegalArgumentException("Node does not exist: " + label);
+        }
+        return node;
+    }
+
+    private Run run(int src, int dst, boolean recordPaths) {
+        SplittableRandom root = seeded ? new SplittableRandom(seed) : new SplittableRandom();
+        int blocks = (walkers + WALKERS_PER_TASK - 1) / WALKERS_PER_TASK;
+        Run run = new Run(src, dst, recordPaths, blocks);
+        for (int b = 0; b < blocks; b++) {
+            run.randoms[b] = root.split();
+        }
+        if (blocks == 1) {
+            run.walkBlock(0);
+        } else {
+            pool.invoke(run.new Blocks(0, blocks));
+        }
+        for (int b = 0; b < blocks; b++) {
+            run.totalSteps += run.blockSteps[b];
+            int[] best = run.blockBest[b];
+            if (best != null && (run.best == null || best.length < run.best.length)) {
+                run.best = best;
+            }
+        }
+        return run;
+    }
+
+    private int next(int current, int degree, SplittableRandom random) {
+        int start = graph.edgeStart(current);
+        int k = random.nextInt(degree);
+        if (aliasProbability != null && random.nextDouble() >= aliasProbability[start + k]) {
+            k = alias[start + k];
+        }
+        return graph.target(start + k);
+    }
+
+    // Vose's alias method per node; nodes whose weights are all zero fall back to uniform
+    private void buildAliasTables() {
+        int maxDegree = 0;
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            maxDegree = Math.max(maxDegree, graph.degree(node));
+        }
+        double[] scaled = new double[maxDegree];
+        int[] small = new int[maxDegree];
+        int[] large = new int[maxDegree];
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            int start = graph.edgeStart(node);
+            int degree = graph.degree(node);
+            double total = 0;
+            for (int k = 0; k < degree; k++) {
+                double weight = graph.weight(start + k);
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Negative edge weight from " + graph.label(node)
+                            + " to " + graph.label(graph.target(start + k)) + ": " + weight);
+                }
+                total += weight;
+            }
+            if (!(total > 0 && total < Double.POSITIVE_INFINITY)) {
+                Arrays.fill(aliasProbability, start, start + degree, 1);
+                continue;
+            }
+            int smallCount = 0;
+            int largeCount = 0;
+            for (int k = 0; k < degree; k++) {
+                scaled[k] = graph.weight(start + k) * degree / total;
+                if (scaled[k] < 1) {
+                    small[smallCount++] = k;
+                } else {
+                    large[largeCount++] = k;
+                }
+            }
+            while (smallCount > 0 && largeCount > 0) {
+                int less = small[--smallCount];
+                int more = large[--largeCount];
+                aliasProbability[start + less] = scaled[less];
+                alias[start + less] = more;
+                scaled[more] += scaled[less] - 1;
+                if (scaled[more] < 1) {
+                    small[smallCount++] = more;
+                } else {
+                    large[largeCount++] = more;
+                }
+            }
+            // Whatever is left is 1 up to rounding
+            while (largeCount > 0) {
+                aliasProbability[start + large[--largeCount]] = 1;
+            }
+            while (smallCount > 0) {
+                aliasProbability[start + small[--smallCount]] = 1;
+            }
+        }
+    }
+
+    // State of one engine call; each block writes only its own slots
+    private final class Run {
+        final int src;
+        final int dst;
+        final boolean recordPaths;
+        final int walkerCount = walkers;
+        final int stepLimit = maxSteps;
+        final double restart = restartProbability;
+        final SplittableRandom[] randoms;
+        final long[] blockSteps;
+        final int[][] blockBest;
+        final int[] hitSteps; // Per walker; -1 if it never reached dst
+        long totalSteps;
+        int[] best;
+
+        Run(int src, int dst, boolean recordPaths, int blocks) {
+            this.src = src;
+            this.dst = dst;
+            this.recordPaths = recordPaths;
+            this.randoms = new SplittableRandom[blocks];
+            this.blockSteps = new long[blocks];
+            this.blockBest = new int[blocks][];
+            this.hitSteps = new int[walkerCount];
+        }
+
+        void walkBlock(int block) {
+            SplittableRandom random = randoms[block];
+            int[] trail = recordPaths ? new int[64] : null;
+            int[] best = null;
+            long steps = 0;
+            for (int w = block * WALKERS_PER_TASK, end = Math.min(walkerCount, w + WALKERS_PER_TASK); w < end; w++) {
+                int current = src;
+                int length = 1;
+                if (recordPaths) {
+                    trail[0] = src;
+                }
+                int hit = current == dst ? 0 : -1;
+                int step = 0;
+                while (hit < 0 && step < stepLimit) {
+                    step++;
+                    int degree = graph.degree(current);
+                    if (restart > 0 && (degree == 0 || random.nextDouble() < restart)) {
+                        current = src;
+                        length = 1;
+                    } else if (degree == 0) {
+                        break; // Stuck with nowhere to restart to
+                    } else {
+                        current = next(current, degree, random);
+                        if (recordPaths) {
+                            if (length == trail.length) {
+                                trail = Arrays.copyOf(trail, length * 2);
+                            }
+                            trail[length] = current;
+                        }
+                        length++;
+                    }
+                    if (current == dst) {
+                        hit = step;
+                    }
+                }
+                steps += step;
+                hitSteps[w] = hit;
+                if (hit >= 0 && recordPaths && (best == null || length < best.length)) {
+                    best = Arrays.copyOf(trail, length);
+                }
+            }
+            blockSteps[block] = steps;
+            blockBest[block] = best;
+        }
+
+        final class Blocks extends RecursiveAction {
+            private final int lo;
+            private final int hi;
+
+            Blocks(int lo, int hi) {
+                this.lo = lo;
+                this.hi = hi;
+            }
+
+            @Override
+            protected void compute() {
+                if (hi - lo > 1) {
+                    int mid = (lo + hi) >>> 1;
+                    invokeAll(new Blocks(lo, mid), new Blocks(mid, hi));
+                    return;
+                }
+                walkBlock(lo);
+            }
+        }
+    }
+
+    // Hitting-time statistics over all walkers of one run; misses are walkers that
+    // used up their steps (or hit a dead end without restarts) before reaching dst
+    public static final class HittingTimes {
+        private final int walkers;
+        private final int[] hits; // Sorted steps of the walkers that arrived
+        private final long totalSteps;
+
+        HittingTimes(int[] hitSteps, long totalSteps) {
+            this.walkers = hitSteps.length;
+            this.hits = Arrays.stream(hitSteps).filter(s -> s >= 0).sorted().toArray();
+            this.totalSteps = totalSteps;
+        }
+
+        public int getWalkerCount() {
+            return walkers;
+        }
+
+        public int getHitCount() {
+            return hits.length;
+        }
+
+        public double getHitProbability() {
+            return (double) hits.length / walkers;
+        }
+
+        // Steps taken by all walkers together, hits and misses alike
+        public long getTotalSteps() {
+            return totalSteps;
+        }
+
+        public double getMeanSteps() {
+            if (hits.length == 0) {
+                return Double.NaN;
+            }
+            long sum = 0;
+            for (int steps : hits) {
+                sum += steps;
+            }
+            return (double) sum / hits.length;
+        }
+
+        public int getMinSteps() {
+            return hits.length == 0 ? -1 : hits[0];
+        }
+
+        public int getMaxSteps() {
+            return hits.length == 0 ? -1 : hits[hits.length - 1];
+        }
+
+        // Hitting time that percentile% of the arriving walkers did not exceed; -1 if none arrived
+        public int getStepsAtPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+            }
+            if (hits.length == 0) {
+                return -1;
+            }
+            int rank = (int) Math.max(1, Math.ceil(percentile / 100 * hits.length));
+            return hits[rank - 1];
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d/%d walkers hit (%.1f%%), steps mean %.1f median %d max %d",
+                    hits.length, walkers, 100 * getHitProbability(), getMeanSteps(), getStepsAtPercentile(50),
+                    getMaxSteps());
+        }
+    }
+}
@@ -1,74 +1,50 @@
-import guru.nidi.graphviz.model.Link;
-import guru.nidi.graphviz.model.MutableGraph;
-import guru.nidi.graphviz.model.MutableNode;
-import java.util.*;
-
+// Random-walk "search": sends walkers out from the source and returns the shortest
+// walk any of them took to the destination, or null if none got there in time
 public class RandomWalkSearchStrategy implements SearchStrategy {
     private static final int MAX_STEPS = 1000; // Prevent infinite loops
 
+    private final int walkers;
+    private final int maxSteps;
+    private final double restartProbability;
+    // Engine (and its alias tables) for the last snapshot searched; snapshots are immutable
+    private volatile RandomWalkEngine engine;
+
+    public RandomWalkSearchStrategy() {
+        this(1, MAX_STEPS, 0);
+    }
+
+    public RandomWalkSearchStrategy(int walkers, int maxSteps, double restartProbability) {
+        if (walkers <= 0 || maxSteps < 0) {
+            throw new IllegalArgumentException("Walker count must be positive and step limit non-negative");
+        }
+        if (!(restartProbability >= 0 && restartProbability < 1)) {
+            throw new IllegalArgumentException("Restart probability must be in [0, 1): " + restartProbability);
+        }
+        this.walkers = walkers;
+        this.maxSteps = maxSteps;
+        this.restartProbability = restartProbability;
+    }
+
     @Override
-    public GraphPath findPath(MutableGraph graph, String srcLabel, String dstLabel) {
-        Random random = new Random();
-        Map<String, String> parentMap = new HashMap<>();
-        GraphPath currentPath = new GraphPath();
-        
+    public GraphPath findPath(GraphSnapshot graph, String srcLabel, String dstLabel, SearchStats stats) {
         // Find source and destination nodes
-        MutableNode current = findNode(graph, srcLabel);
-        MutableNode dst = findNode(graph, dstLabel);
+        int src = graph.idOf(srcLabel);
+        int dst = graph.idOf(dstLabel);
         
-        if (current == null || dst == null) {
+        if (src < 0 || dst < 0) {
             throw new IllegalArgumentException("Source or destination node does not exist");
         }
 
-        currentPath.addNode(srcLabel);
-        System.out.println("random testing");
-        System.out.println("visiting " + currentPath);
+        return engineFor(graph).findPath(src, dst, stats);
+    }
 
-        int steps = 0;
-        while (steps < MAX_STEPS) {
-            String currentLabel = current.name().toString();
-            
-            // Check if we reached destination
-            if (currentLabel.equals(dstLabel)) {
-                return currentPath;
-            }
-            
-            // Get all neighbors
-            List<MutableNode> neighbors = new ArrayList<>();
-            for (Link link : current.links()) {
-                String neighborLabel = link.to().name().toString();
-                MutableNode neighbor = findNode(graph, neighborLabel);
-                if (neighbor != null) {
-                    neighbors.add(neighbor);
-                }
-            }
-            
-            // No neighbors to explore
-            if (neighbors.isEmpty()) {
-                return null;
-            }
-            
-            // Randomly select next node
-            MutableNode next = neighbors.get(random.nextInt(neighbors.size()));
-            String nextLabel = next.name().toString();
-            
-            // Update path
-            parentMap.put(nextLabel, currentLabel);
-            currentPath.addNode(nextLabel);
-            System.out.println("visiting " + currentPath);
-            
-            current = next;
-            steps++;
+    private RandomWalkEngine engineFor(GraphSnapshot graph) {
+        RandomWalkEngine current = engine;
+        if (current == null || current.graph() != graph) {
+            current = new RandomWalkEngine(graph).walkers(walkers).maxSteps(maxSteps)
+                    .restartProbability(restartProbability);
+            engine = current; // Racing threads may each build one; any of them is correct
         }
-        
-        // If we exceed max steps, return null
-        return null;
-    }
-    
-    private MutableNode findNode(MutableGraph graph, String label) {
-        return graph.nodes().stream()
-                .filter(n -> n.name().toString().equals(label))
-                .findFirst()
-                .orElse(null);
+        return current;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,180 @@
+import java.util.SplittableRandom;
+
+// Answers "can src reach dst" from labels over the condensation DAG instead of a graph
+// search. Small DAGs get a full transitive closure as bitsets (exact, one bit test).
+// Larger ones get GRAIL interval labels: each of a few randomized post-order walks
+// gives every component an interval [low, post], and u can only reach v if every
+// interval of v lies inside u's. A failed containment is a definite "no"; when all
+// intervals nest the answer is confirmed by a DAG search that prunes with the same
+// labels, so results are always exact.
+public class ReachabilityIndex {
+    private static final int MAX_CLOSURE_COMPONENTS = 4096; // 2 MiB of bitsets at most
+    private static final int LABELINGS = 3;
+
+    private final StronglyConnectedComponents components;
+    private final long[][] closure; // Null when intervals are used
+    private final int[][] low;
+    private final int[][] post;
+
+    public ReachabilityIndex(StronglyConnectedComponents components) {
+        this(components, MAX_CLOSURE_COMPONENTS, 42);
+    }
+
+    ReachabilityIndex(StronglyConnectedComponents components, int maxClosureComponents, long seed) {
+        this.components = components;
+        int count = components.componentCount();
+        if (count <= maxClosureComponents) {
+            closure = buildClosure();
+            low = null;
+            post = null;
+        } else {
+            closure = null;
+            low = new int[LABELINGS][];
+            post = new int[LABELINGS][];
+            SplittableRandom random = new SplittableRandom(seed);
+            for (int i = 0; i < LABELINGS; i++) {
+                label(i, random);
+            }
+        }
+    }
+
+    StronglyConnectedComponents components() {
+        return components;
+    }
+
+    public boolean isReachable(int src, int dst) {
+        int from = components.component(src);
+        int to = components.component(dst);
+        if (from == to) {
+            return true;
+        }
+        if (from < to) {
+            return false;
+        }
+        if (closure != null) {
+            return (closure[from][to >>> 6] & (1L << to)) != 0;
+        }
+        if (!contains(from, to)) {
+            return false;
+        }
+        return search(from, to);
+    }
+
+    // Successor components all have smaller ids, so one ascending pass fills every row
+    private long[][] buildClosure() {
+        int count = components.componentCount();
+        int words = (count + 63) >>> 6;
+        long[][] rows = new long[count][];
+        for (int c = 0; c < count; c++) {
+            long[] row = new long[words];
+            row[c >>> 6] |= 1L << c;
+            for (int e = components.dagEdgeStart(c), end = components.dagEdgeEnd(c); e < end; e++) {
+                long[] successor = rows[components.dagTarget(e)];
+                for (int w = 0; w < words; w++) {
+                    row[w] |= successor[w];
+                }
+            }
+            rows[c] = row;
+        }
+        return rows;
+    }
+
+    // One randomized post-order walk: roots in shuffled order, children from a random rotation
+    private void label(int labeling, SplittableRandom random) {
+        int count = components.componentCount();
+        int[] lows = new int[count];
+        int[] posts = new int[count];
+        boolean[] hasParent = new boolean[count];
+        for (int e = 0; e < components.dagEdgeCount(); e++) {
+            hasParent[components.dagTarget(e)] = true;
+        }
+        int[] roots = new int[count];
+        int rootCount = 0;
+        for (int c = 0; c < count; c++) {
+            if (!hasParent[c]) {
+                roots[rootCount++] = c;
+            }
+        }
+        for (int i = rootCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = roots[i];
+            roots[i] = roots[j];
+            roots[j] = swap;
+        }
+
+        int[] stack = new int[count];
+        int[] offset = new int[count];  // Random starting child per frame
+        int[] visited = new int[count]; // Children tried per frame
+        int rank = 0;
+        for (int r = 0; r < rootCount; r++) {
+            int size = 0;
+            stack[size] = roots[r];
+            offset[size] = random.nextInt(Math.max(1, degree(roots[r])));
+            visited[size++] = 0;
+            posts[roots[r]] = -1; // On the stack
+            while (size > 0) {
+                int c = stack[size - 1];
+                int degree = degree(c);
+                if (visited[size - 1] < degree) {
+                    int k = (offset[size - 1] + visited[size - 1]++) % degree;
+                    int child = components.dagTarget(components.dagEdgeStart(c) + k);
+                    if (posts[child] == 0) {
+                        stack[size] = child;
+                        offset[size] = random.nextInt(Math.max(1, degree(child)));
+                        visited[size++] = 0;
+                        posts[child] = -1;
+                    }
+                    continue;
+                }
+                size--;
+                posts[c] = ++rank;
+                int min = rank;
+                for (int e = components.dagEdgeStart(c), end = components.dagEdgeEnd(c); e < end; e++) {
+                    min = Math.min(min, lows[components.dagTarget(e)]);
+                }
+                lows[c] = min;
+            }
+        }
+        low[labeling] = lows;
+        post[labeling] = posts;
+    }
+
+    private int degree(int component) {
+        return components.dagEdgeEnd(component) - components.dagEdgeStart(component);
+    }
+
+    private boolean contains(int outer, int inner) {
+        for (int i = 0; i < LABELINGS; i++) {
+            if (low[i][inner] < low[i][outer] || post[i][inner] > post[i][outer]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // DFS over the DAG that only enters components whose labels still contain dst's
+    private boolean search(int from, int to) {
+        SearchContext context = SearchContext.acquire(components.componentCount());
+        try {
+            int[] stack = context.queue;
+            int size = 0;
+            stack[size++] = from;
+            context.visit(from);
+            while (size > 0) {
+                int current = stack[--size];
+                for (int e = components.dagEdgeStart(current), end = components.dagEdgeEnd(current); e < end; e++) {
+                    int next = components.dagTarget(e);
+                    if (next == to) {
+                        return true;
+                    }
+                    if (next > to && contains(next, to) && context.visit(next)) {
+                        stack[size++] = next;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            context.release();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Reusable scratch arrays for one graph search. Visited marks are epoch stamps, so
+// starting a new search is O(1): bump the epoch and every node reads as unvisited.
+// Contexts are pooled across threads (virtual threads make ThreadLocal a poor fit),
+// and the pool itself is lock- and allocation-free.
+public final class SearchContext {
+    private static final int POOL_SIZE = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+    private static final AtomicReferenceArray<SearchContext> POOL = new AtomicReferenceArray<>(POOL_SIZE);
+
+    // Parent of each visited node; only meaningful for nodes visited in this search
+    int[] parent = new int[0];
+    // BFS queue or DFS stack; each node enters at most once, so it never needs to wrap
+    int[] queue = new int[0];
+    // Next out-edge to try for each node on the iterative DFS stack
+    int[] cursor = new int[0];
+    // Bidirectional BFS only, sized by prepareBidirectional: hops from the source, and the
+    // backward search's parents (next hop towards the destination), queue and hops
+    int[] depth = new int[0];
+    int[] backParent = new int[0];
+    int[] backQueue = new int[0];
+    int[] backDepth = new int[0];
+    // Dijkstra and A* only, sized by prepareWeighted: cost so far, valid for visited nodes
+    double[] distance = new double[0];
+    private IndexedMinHeap heap;
+    private int[] visitedEpoch = new int[0];
+    private int[] backVisitedEpoch = new int[0];
+    private int epoch;
+
+    private SearchContext() {
+    }
+
+    // Takes a pooled context (or makes one) sized for nodeCount nodes, with nothing visited
+    public static SearchContext acquire(int nodeCount) {
+        int start = (int) (Thread.currentThread().threadId() % POOL_SIZE);
+        SearchContext context = null;
+        for (int i = 0; i < POOL_SIZE && context == null; i++) {
+            context = POOL.getAndSet((start + i) % POOL_SIZE, null);
+        }
+        if (context == null) {
+            context = new SearchContext();
+        }
+        context.reset(nodeCount);
+        return context;
+    }
+
+    // Returns the context to the pool; it must not be used afterwards
+    public void release() {
+        int start = (int) (Thread.currentThread().threadId() % POOL_SIZE);
+        for (int i = 0; i < POOL_SIZE; i++) {
+            if (POOL.compareAndSet((start + i) % POOL_SIZE, null, this)) {
+                return;
+            }
+        }
+    }
+
+    // Marks node visited; returns false if it already was
+    public boolean visit(int node) {
+        if (visitedEpoch[node] == epoch) {
+            return false;
+        }
+        visitedEpoch[node] = epoch;
+        return true;
+    }
+
+    public boolean isVisited(int node) {
+        return visitedEpoch[node] == epoch;
+    }
+
+    // Allocates the bidirectional arrays once per context size; call after acquire
+    void prepareBidirectional() {
+        int capacity = visitedEpoch.length;
+        if (backVisitedEpoch.length < capacity) {
+            depth = new int[capacity];
+            backParent = new int[capacity];
+            backQueue = new int[capacity];
+            backDepth = new int[capacity];
+            backVisitedEpoch = new int[capacity];
+        }
+    }
+
+    // Allocates the distance array and priority queue once per context size and returns
+    // the queue emptied; call after acquire
+    IndexedMinHeap prepareWeighted() {
+        int capacity = visitedEpoch.length;
+        if (heap == null || heap.capacity() < capacity) {
+            distance = new double[capacity];
+            heap = new IndexedMinHeap(capacity);
+        } else {
+            heap.clear();
+        }
+        return heap;
+    }
+
+    // Visited marks of the backward search, stamped with the same epoch
+    boolean visitBackward(int node) {
+        if (backVisitedEpoch[node] == epoch) {
+            return false;
+        }
+        backVisitedEpoch[node] = epoch;
+        return true;
+    }
+
+    boolean isVisitedBackward(int node) {
+        return backVisitedEpoch[node] == epoch;
+    }
+
+    private void reset(int nodeCount) {
+        if (visitedEpoch.length < nodeCount) {
+            parent = new int[nodeCount];
+            queue = new int[nodeCount];
+            cursor = new int[nodeCount];
+            visitedEpoch = new int[nodeCount];
+            epoch = 0;
+        }
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(visitedEpoch, 0);
+            Arrays.fill(backVisitedEpoch, 0);
+            epoch = 0;
+        }
+        epoch++;
+    }
+}
@@ -0,0 +1,23 @@
+// Lower-bound estimate of the remaining cost from node to goal, used by A*.
+// Must never overestimate the true path cost for A* to return shortest paths.
+@FunctionalInterface
+public interface SearchHeuristic {
+    double estimate(GraphSnapshot graph, int node, int goal);
+
+    // Straight-line distance between DOT pos coordinates, scaled to edge weights by the
+    // snapshot's distanceScale() so it stays a lower bound; 0 when positions are missing
+    static SearchHeuristic euclidean() {
+        return (graph, node, goal) -> {
+            double scale = graph.distanceScale();
+            if (scale == 0 || !graph.hasPosition(node) || !graph.hasPosition(goal)) {
+                return 0;
+            }
+            return scale * Math.hypot(graph.x(node) - graph.x(goal), graph.y(node) - graph.y(goal));
+        };
+    }
+
+    // Turns A* into plain Dijkstra
+    static SearchHeuristic zero() {
+        return (graph, node, goal) -> 0;
+    }
+}
@@ -0,0 +1,132 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Per-algorithm search metrics, safe to record from many threads at once. Counters
+// are LongAdders and latencies go to one of several histogram stripes picked by
+// thread id, so concurrent searches rarely touch the same cache line or lock.
+public class SearchMetrics implements SearchMetricsMXBean {
+    private static final int STRIPES = 8; // Power of two
+
+    private final Map<Algorithm, Counters> counters = new EnumMap<>(Algorithm.class);
+    private ObjectName registeredName;
+
+    public SearchMetrics() {
+        for (Algorithm algorithm : Algorithm.values()) {
+            counters.put(algorithm, new Counters());
+        }
+    }
+
+    public void record(Algorithm algorithm, long latencyNanos, SearchStats stats, boolean found) {
+        Counters c = counters.get(algorithm);
+        c.queries.increment();
+        if (found) {
+            c.found.increment();
+        }
+        c.nodesExpanded.add(stats.getNodesExpanded());
+        c.edgesScanned.add(stats.getEdgesScanned());
+        c.peakFrontier.accumulate(stats.getPeakFrontier());
+        LatencyHistogram stripe = c.latencies[(int) Thread.currentThread().threadId() & (STRIPES - 1)];
+        synchronized (stripe) {
+            stripe.record(Math.max(0, latencyNanos));
+        }
+    }
+
+    // Stats of one algorithm; a concurrent record may be only partly included
+    public AlgorithmStats snapshot(Algorithm algorithm) {
+        Counters c = counters.get(algorithm);
+        LatencyHistogram latencies = new LatencyHistogram();
+        for (LatencyHistogram stripe : c.latencies) {
+            synchronized (stripe) {
+                latencies.merge(stripe);
+            }
+        }
+        return new AlgorithmStats(algorithm.name(), c.queries.sum(), c.found.sum(), c.nodesExpanded.sum(),
+                c.edgesScanned.sum(), c.peakFrontier.get(), latencies.getMean() / 1e3,
+                latencies.getValueAtPercentile(50) / 1e3, latencies.getValueAtPercentile(99) / 1e3,
+                latencies.getValueAtPercentile(99.9) / 1e3, latencies.getMax() / 1e3);
+    }
+
+    public Map<Algorithm, AlgorithmStats> snapshot() {
+        Map<Algorithm, AlgorithmStats> stats = new EnumMap<>(Algorithm.class);
+        for (Algorithm algorithm : Algorithm.values()) {
+            stats.put(algorithm, snapshot(algorithm));
+        }
+        return stats;
+    }
+
+    @Override
+    public List<AlgorithmStats> getAlgorithms() {
+        return new ArrayList<>(snapshot().values());
+    }
+
+    @Override
+    public long getTotalQueries() {
+        long total = 0;
+        for (Counters c : counters.values()) {
+            total += c.queries.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public void reset() {
+        for (Counters c : counters.values()) {
+            c.reset();
+        }
+    }
+
+    // Registers this object with the platform MBean server under the given name,
+    // e.g. "JGraphKit:type=SearchMetrics,name=main"
+    public synchronized void register(String objectName) throws JMException {
+        unregister();
+        ObjectName name = new ObjectName(objectName);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+        registeredName = name;
+    }
+
+    public synchronized void unregister() throws JMException {
+        if (registeredName != null) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(registeredName)) {
+                server.unregisterMBean(registeredName);
+            }
+            registeredName = null;
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder queries = new LongAdder();
+        final LongAdder found = new LongAdder();
+        final LongAdder nodesExpanded = new LongAdder();
+        final LongAdder edgesScanned = new LongAdder();
+        final LongAccumulator peakFrontier = new LongAccumulator(Math::max, 0);
+        final LatencyHistogram[] latencies = new LatencyHistogram[STRIPES];
+
+        Counters() {
+            for (int i = 0; i < STRIPES; i++) {
+                latencies[i] = new LatencyHistogram();
+            }
+        }
+
+        void reset() {
+            queries.reset();
+            found.reset();
+            nodesExpanded.reset();
+            edgesScanned.reset();
+            peakFrontier.reset();
+            for (LatencyHistogram stripe : latencies) {
+                synchronized (stripe) {
+                    stripe.reset();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+import java.util.List;
+
+// Management interface of SearchMetrics; latencies are reported in microseconds
+public interface SearchMetricsMXBean {
+    List<AlgorithmStats> getAlgorithms();
+
+    long getTotalQueries();
+
+    void reset();
+}
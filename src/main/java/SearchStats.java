@@ -0,0 +1,36 @@
+// Work counters for one search, filled in by the strategy as it runs
+public final class SearchStats {
+    private long nodesExpanded;
+    private long edgesScanned;
+    private int peakFrontier;
+
+    // Called once per node taken off the frontier, with the number of edges it will scan
+    public void expand(int edges) {
+        nodesExpanded++;
+        edgesScanned += edges;
+    }
+
+    // Bulk form for searches that expand a whole level at once
+    public void expand(long nodes, long edges) {
+        nodesExpanded += nodes;
+        edgesScanned += edges;
+    }
+
+    public void frontier(int size) {
+        if (size > peakFrontier) {
+            peakFrontier = size;
+        }
+    }
+
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    public long getEdgesScanned() {
+        return edgesScanned;
+    }
+
+    public int getPeakFrontier() {
+        return peakFrontier;
+    }
+}
@@ -1,5 +1,15 @@
-import guru.nidi.graphviz.model.MutableGraph;
-
 public interface SearchStrategy {
-    GraphPath findPath(MutableGraph graph, String srcLabel, String dstLabel);
-}
\ No newline at end of file
+    default GraphPath findPath(GraphSnapshot graph, String srcLabel, String dstLabel) {
+        return findPath(graph, srcLabel, dstLabel, new SearchStats());
+    }
+
+    // Same search, recording nodes expanded, edges scanned and peak frontier into stats
+    GraphPath findPath(GraphSnapshot graph, String srcLabel, String dstLabel, SearchStats stats);
+
+    // Same search, allowed to skip nodes whose component cannot reach dst's (see
+    // StronglyConnectedComponents); strategies that cannot use this ignore it
+    default GraphPath findPath(GraphSnapshot graph, String srcLabel, String dstLabel, SearchStats stats,
+                               StronglyConnectedComponents components) {
+        return findPath(graph, srcLabel, dstLabel, stats);
+    }
+}
@@ -0,0 +1,469 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Single-pass DOT reader for very large graphs. It tokenizes raw bytes from a
+// FileChannel and feeds node and edge ids straight into a GraphSnapshotBuilder,
+// so memory stays proportional to the compact graph rather than a parse tree.
+// A label String is only created the first time a label is seen.
+//
+// Supported subset: [strict] (di)graph [name] { ... } with node statements, edge
+// chains (-> or --), attribute lists, graph/node/edge default statements, a=b
+// graph attributes, ports (ignored) and //, /* */ and # comments. Edge weight/len
+// and node pos are read; other attributes are skipped. Subgraphs and HTML labels
+// are rejected.
+public class StreamingDotParser {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private static final int EOF = 0;
+    private static final int ID = 1;
+    private static final int EDGE_OP = 2;
+    private static final int LBRACE = 3;
+    private static final int RBRACE = 4;
+    private static final int LBRACKET = 5;
+    private static final int RBRACKET = 6;
+    private static final int EQUALS = 7;
+    private static final int SEMI = 8;
+    private static final int COMMA = 9;
+    private static final int COLON = 10;
+
+    private static final byte[] WEIGHT = ascii("weight");
+    private static final byte[] LEN = ascii("len");
+    private static final byte[] POS = ascii("pos");
+
+    private final FileChannel channel;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteBuffer window = ByteBuffer.wrap(buffer);
+    private int position;
+    private int limit;
+    private int line = 1;
+    private boolean atLineStart = true;
+
+    // Current token; held keeps the previous ID's text while looking one token ahead
+    private int token;
+    private byte[] text = new byte[64];
+    private int textLength;
+    private boolean quoted;
+    private byte[] held = new byte[64];
+    private int heldLength;
+
+    private final GraphSnapshotBuilder builder = new GraphSnapshotBuilder();
+    private final LabelDictionary dictionary = new LabelDictionary();
+    private int[] chain = new int[8];
+    private final EdgeAttributes attributes = new EdgeAttributes();
+    private double defaultWeight = Double.NaN;
+    private double defaultLen = Double.NaN;
+
+    private StreamingDotParser(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static GraphSnapshot parse(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new StreamingDotParser(channel).parseGraph();
+        }
+    }
+
+    private GraphSnapshot parseGraph() throws IOException {
+        next();
+        if (isKeyword("strict")) {
+            next();
+        }
+        if (!isKeyword("digraph") && !isKeyword("graph")) {
+            throw error("expected 'digraph' or 'graph'");
+        }
+        next();
+        if (token == ID) {
+            next(); // Graph name
+        }
+        expect(LBRACE, "'{'");
+        next();
+        while (token != RBRACE) {
+            if (token == EOF) {
+                throw error("missing closing '}'");
+            }
+            if (token == SEMI || token == COMMA) {
+                next();
+                continue;
+            }
+            parseStatement();
+        }
+        next();
+        if (token != EOF) {
+            throw error("unexpected content after closing '}'");
+        }
+        return builder.build();
+    }
+
+    private void parseStatement() throws IOException {
+        if (token == LBRACE || isKeyword("subgraph")) {
+            throw error("subgraphs are not supported by the streaming parser");
+        }
+        expect(ID, "a statement");
+        if (isKeyword("edge") || isKeyword("node") || isKeyword("graph")) {
+            boolean edgeDefaults = isKeyword("edge");
+            next();
+            expect(LBRACKET, "'['");
+            EdgeAttributes defaults = parseAttributeLists(-1);
+            if (edgeDefaults) {
+                if (!Double.isNaN(defaults.weight)) {
+                    defaultWeight = defaults.weight;
+                }
+                if (!Double.isNaN(defaults.len)) {
+                    defaultLen = defaults.len;
+                }
+            }
+            return;
+        }
+
+        holdText();
+        next();
+        if (token == EQUALS) {
+            next();
+            expect(ID, "an attribute value");
+            next();
+            return;
+        }
+
+        int node = nodeId(held, heldLength);
+        skipPort();
+        if (token != EDGE_OP) {
+            if (token == LBRACKET) {
+                parseAttributeLists(node);
+            }
+            return;
+        }
+
+        int chainLength = 0;
+        chain[chainLength++] = node;
+        while (token == EDGE_OP) {
+            next();
+            if (token == LBRACE || isKeyword("subgraph")) {
+                throw error("subgraphs are not supported by the streaming parser");
+            }
+            expect(ID, "a node id after the edge operator");
+            if (chainLength == chain.length) {
+                chain = Arrays.copyOf(chain, chainLength * 2);
+            }
+            chain[chainLength++] = nodeId(text, textLength);
+            next();
+            skipPort();
+        }
+
+        double weight = GraphSnapshot.DEFAULT_WEIGHT;
+        double len = Double.NaN;
+        double ownWeight = Double.NaN;
+        if (token == LBRACKET) {
+            EdgeAttributes own = parseAttributeLists(-1);
+            ownWeight = own.weight;
+            len = own.len;
+        }
+        // Same precedence as GraphSnapshot.weightOf: weight, then len, then unit weight
+        if (!Double.isNaN(ownWeight)) {
+            weight = ownWeight;
+        } else if (!Double.isNaN(defaultWeight)) {
+            weight = defaultWeight;
+        } else if (!Double.isNaN(len)) {
+            weight = len;
+        } else if (!Double.isNaN(defaultLen)) {
+            weight = defaultLen;
+        }
+        for (int i = 1; i < chainLength; i++) {
+            builder.addEdge(chain[i - 1], chain[i], weight);
+        }
+    }
+
+    private void skipPort() throws IOException {
+        while (token == COLON) {
+            next();
+            expect(ID, "a port name");
+            next();
+        }
+    }
+
+    private static final class EdgeAttributes {
+        double weight = Double.NaN;
+        double len = Double.NaN;
+    }
+
+    // Parses one or more [k=v, ...] lists; node >= 0 records its pos attribute.
+    // The returned holder is reused by the next call.
+    private EdgeAttributes parseAttributeLists(int node) throws IOException {
+        attributes.weight = Double.NaN;
+        attributes.len = Double.NaN;
+        while (token == LBRACKET) {
+            next();
+            while (token != RBRACKET) {
+                if (token == SEMI || token == COMMA) {
+                    next();
+                    continue;
+                }
+                expect(ID, "an attribute name");
+                holdText();
+                next();
+                if (token != EQUALS) {
+                    continue; // Bare attribute name
+                }
+                next();
+                expect(ID, "an attribute value");
+                if (heldEquals(WEIGHT)) {
+                    attributes.weight = number();
+                } else if (heldEquals(LEN)) {
+                    attributes.len = number();
+                } else if (heldEquals(POS) && node >= 0) {
+                    double[] xy = GraphSnapshot.parsePosition(new String(text, 0, textLength, StandardCharsets.UTF_8));
+                    if (xy != null) {
+                        builder.setPosition(node, xy[0], xy[1]);
+                    }
+                }
+                next();
+            }
+            next();
+        }
+        return attributes;
+    }
+
+    // Parses the current token as a number; plain integers avoid creating a String.
+    // Values that are not numbers fall back to the default weight like weightOf does.
+    private double number() {
+        int i = 0;
+        boolean negative = textLength > 1 && text[0] == '-';
+        if (negative) {
+            i = 1;
+        }
+        long value = 0;
+        boolean simple = textLength - i > 0 && textLength - i < 18;
+        for (int j = i; simple && j < textLength; j++) {
+            int digit = text[j] - '0';
+            if (digit < 0 || digit > 9) {
+                simple = false;
+            } else {
+                value = value * 10 + digit;
+            }
+        }
+        if (simple) {
+            return negative ? -value : value;
+        }
+        try {
+            return Double.parseDouble(new String(text, 0, textLength, StandardCharsets.ISO_8859_1));
+        } catch (NumberFormatException e) {
+            return GraphSnapshot.DEFAULT_WEIGHT;
+        }
+    }
+
+    private void holdText() {
+        byte[] swap = held;
+        held = text;
+        heldLength = textLength;
+        text = swap;
+    }
+
+    private boolean heldEquals(byte[] literal) {
+        return Arrays.equals(held, 0, heldLength, literal, 0, literal.length);
+    }
+
+    private boolean isKeyword(String keyword) {
+        if (token != ID || quoted || textLength != keyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < textLength; i++) {
+            if (Character.toLowerCase((char) text[i]) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void expect(int kind, String what) throws IOException {
+        if (token != kind) {
+            throw error("expected " + what);
+        }
+    }
+
+    private IOException error(String message) {
+        return new IOException("Line " + line + ": " + message);
+    }
+
+    // ---- Tokenizer ----
+
+    private void next() throws IOException {
+        skipWhitespaceAndComments();
+        int c = peek(0);
+        if (c < 0) {
+            token = EOF;
+            return;
+        }
+        atLineStart = false;
+        switch (c) {
+            case '{' -> single(LBRACE);
+            case '}' -> single(RBRACE);
+            case '[' -> single(LBRACKET);
+            case ']' -> single(RBRACKET);
+            case '=' -> single(EQUALS);
+            case ';' -> single(SEMI);
+            case ',' -> single(COMMA);
+            case ':' -> single(COLON);
+            case '"' -> readQuoted();
+            case '<' -> throw error("HTML labels are not supported by the streaming parser");
+            default -> {
+                int after = peek(1);
+                if (c == '-' && (after == '>' || after == '-')) {
+                    position += 2;
+                    token = EDGE_OP;
+                } else if (isIdByte(c) || c == '-') {
+                    readBare();
+                } else {
+                    throw error("unexpected character '" + (char) c + "'");
+                }
+            }
+        }
+    }
+
+    private void single(int kind) {
+        position++;
+        token = kind;
+    }
+
+    private void readBare() throws IOException {
+        textLength = 0;
+        quoted = false;
+        append((byte) peek(0));
+        position++;
+        int c;
+        while ((c = peek(0)) >= 0 && isIdByte(c)) {
+            append((byte) c);
+            position++;
+        }
+        token = ID;
+    }
+
+    private void readQuoted() throws IOException {
+        textLength = 0;
+        quoted = true;
+        position++;
+        while (true) {
+            int c = peek(0);
+            if (c < 0) {
+                throw error("unterminated string");
+            }
+            position++;
+            if (c == '"') {
+                break;
+            }
+            if (c == '\\') {
+                int escaped = peek(0);
+                if (escaped == '"') {
+                    position++;
+                    append((byte) '"');
+                    continue;
+                }
+                if (escaped == '\n') {
+                    position++; // Line continuation
+                    line++;
+                    continue;
+                }
+            }
+            if (c == '\n') {
+                line++;
+            }
+            append((byte) c);
+        }
+        token = ID;
+    }
+
+    private static boolean isIdByte(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '_' || c == '.' || c >= 0x80;
+    }
+
+    private void append(byte b) {
+        if (textLength == text.length) {
+            text = Arrays.copyOf(text, textLength * 2);
+        }
+        text[textLength++] = b;
+    }
+
+    private void skipWhitespaceAndComments() throws IOException {
+        while (true) {
+            int c = peek(0);
+            if (c < 0) {
+                return;
+            }
+            if (c == '\n') {
+                line++;
+                atLineStart = true;
+                position++;
+            } else if (c == ' ' || c == '\t' || c == '\r' || c == '\f') {
+                position++;
+            } else if (c == '#' && atLineStart) {
+                skipLine();
+            } else if (c == '/' && peek(1) == '/') {
+                skipLine();
+            } else if (c == '/' && peek(1) == '*') {
+                position += 2;
+                while (!(peek(0) == '*' && peek(1) == '/')) {
+                    int skipped = peek(0);
+                    if (skipped < 0) {
+                        throw error("unterminated comment");
+                    }
+                    if (skipped == '\n') {
+                        line++;
+                    }
+                    position++;
+                }
+                position += 2;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        while ((c = peek(0)) >= 0 && c != '\n') {
+            position++;
+        }
+    }
+
+    // Returns the byte `ahead` positions past the cursor (refilling as needed), or -1 at EOF
+    private int peek(int ahead) throws IOException {
+        while (position + ahead >= limit) {
+            if (!fill()) {
+                return -1;
+            }
+        }
+        return buffer[position + ahead] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        window.limit(buffer.length).position(limit);
+        int read = channel.read(window);
+        if (read <= 0) {
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Builder ids follow dictionary ids, so a new label is registered with both
+    private int nodeId(byte[] bytes, int length) {
+        int id = dictionary.idOf(bytes, 0, length);
+        if (id == builder.nodeCount()) {
+            builder.addNode(dictionary.label(id));
+        }
+        return id;
+    }
+}
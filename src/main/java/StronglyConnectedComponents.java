@@ -0,0 +1,214 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Strongly connected components of a snapshot (iterative Tarjan, so deep graphs
+// cannot overflow the stack) and the condensation DAG between them. Tarjan finishes
+// a component only after every component it reaches, so ids are a reverse
+// topological order: an edge between components always goes from a higher id to a
+// lower one, and a node can only reach dst if its component id is >= dst's.
+public class StronglyConnectedComponents {
+    private final GraphSnapshot graph;
+    private final int[] component;
+    private final int componentCount;
+    // Members of each component, CSR style
+    private final int[] memberOffsets;
+    private final int[] members;
+    // Condensation DAG, CSR style, without duplicate edges
+    private final int[] dagOffsets;
+    private final int[] dagTargets;
+
+    public StronglyConnectedComponents(GraphSnapshot graph) {
+        this.graph = graph;
+        int n = graph.nodeCount();
+        this.component = new int[n];
+        this.componentCount = tarjan();
+
+        memberOffsets = new int[componentCount + 1];
+        for (int node = 0; node < n; node++) {
+            memberOffsets[component[node] + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        members = new int[n];
+        int[] fill = Arrays.copyOf(memberOffsets, componentCount);
+        for (int node = 0; node < n; node++) {
+            members[fill[component[node]]++] = node;
+        }
+
+        // Two passes over the members: count distinct successor components, then fill them in
+        dagOffsets = new int[componentCount + 1];
+        int[] mark = new int[componentCount];
+        Arrays.fill(mark, -1);
+        for (int c = 0; c < componentCount; c++) {
+            dagOffsets[c + 1] = dagOffsets[c] + successors(c, mark, null, 0);
+        }
+        dagTargets = new int[dagOffsets[componentCount]];
+        Arrays.fill(mark, -1);
+        for (int c = 0; c < componentCount; c++) {
+            successors(c, mark, dagTargets, dagOffsets[c]);
+        }
+    }
+
+    GraphSnapshot graph() {
+        return graph;
+    }
+
+    public int componentCount() {
+        return componentCount;
+    }
+
+    public int component(int node) {
+        return component[node];
+    }
+
+    public int component(String label) {
+        int node = graph.idOf(label);
+        if (node < 0) {
+            throw new IllegalArgumentException("Node does not exist: " + label);
+        }
+        return component[node];
+    }
+
+    public int size(int component) {
+        return memberOffsets[component + 1] - memberOffsets[component];
+    }
+
+    public List<String> members(int component) {
+        List<String> labels = new ArrayList<>(size(component));
+        for (int i = memberOffsets[component]; i < memberOffsets[component + 1]; i++) {
+            labels.add(graph.label(members[i]));
+        }
+        return labels;
+    }
+
+    // Condensation DAG edges of a component; targets always have smaller ids
+    public int dagEdgeStart(int component) {
+        return dagOffsets[component];
+    }
+
+    public int dagEdgeEnd(int component) {
+        return dagOffsets[component + 1];
+    }
+
+    public int dagTarget(int edge) {
+        return dagTargets[edge];
+    }
+
+    public int dagEdgeCount() {
+        return dagTargets.length;
+    }
+
+    // Exact reachability between two nodes, searched over the condensation DAG and
+    // limited to components whose ids lie between dst's and src's
+    public boolean canReach(int src, int dst) {
+        int from = component[src];
+        int to = component[dst];
+        if (from == to) {
+            return true;
+        }
+        if (from < to) {
+            return false;
+        }
+        SearchContext context = SearchContext.acquire(componentCount);
+        try {
+            int[] stack = context.queue;
+            int size = 0;
+            stack[size++] = from;
+            context.visit(from);
+            while (size > 0) {
+                int current = stack[--size];
+                for (int e = dagOffsets[current], end = dagOffsets[current + 1]; e < end; e++) {
+                    int next = dagTargets[e];
+                    if (next == to) {
+                        return true;
+                    }
+                    if (next > to && context.visit(next)) {
+                        stack[size++] = next;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            context.release();
+        }
+    }
+
+    // Tarjan's algorithm with an explicit call stack; returns the number of components
+    private int tarjan() {
+        int n = graph.nodeCount();
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] stack = new int[n];   // Tarjan's node stack
+        int[] calls = new int[n];   // Simulated recursion: node per frame
+        int[] cursor = new int[n];  // Next out-edge per frame
+        Arrays.fill(index, -1);
+        Arrays.fill(component, -1); // Indexed but unassigned means "on the stack"
+        int nextIndex = 0;
+        int count = 0;
+        int stackSize = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            index[root] = low[root] = nextIndex++;
+            stack[stackSize++] = root;
+            calls[depth] = root;
+            cursor[depth++] = graph.edgeStart(root);
+
+            while (depth > 0) {
+                int node = calls[depth - 1];
+                int e = cursor[depth - 1];
+                if (e < graph.edgeEnd(node)) {
+                    cursor[depth - 1] = e + 1;
+                    int next = graph.target(e);
+                    if (index[next] < 0) {
+                        index[next] = low[next] = nextIndex++;
+                        stack[stackSize++] = next;
+                        calls[depth] = next;
+                        cursor[depth++] = graph.edgeStart(next);
+                    } else if (component[next] < 0) {
+                        low[node] = Math.min(low[node], index[next]);
+                    }
+                    continue;
+                }
+                depth--;
+                if (low[node] == index[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        component[member] = count;
+                    } while (member != node);
+                    count++;
+                }
+                if (depth > 0) {
+                    int parent = calls[depth - 1];
+                    low[parent] = Math.min(low[parent], low[node]);
+                }
+            }
+        }
+        return count;
+    }
+
+    // Distinct successor components of c, written to out[at..] when out is not null
+    private int successors(int c, int[] mark, int[] out, int at) {
+        int count = 0;
+        for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+            int node = members[i];
+            for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+                int next = component[graph.target(e)];
+                if (next != c && mark[next] != c) {
+                    mark[next] = c;
+                    if (out != null) {
+                        out[at + count] = next;
+                    }
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
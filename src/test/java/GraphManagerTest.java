@@ -4,8 +4,35 @@ import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
 
 public class GraphManagerTest {
     private GraphManager graphManager;
@@ -273,6 +300,1353 @@ public class GraphManagerTest {
         }, "Should throw exception for null algorithm");
     }
 
+    @Test
+    void testSnapshotCachedUntilMutation() {
+        setupTestGraph();
+
+        GraphSnapshot snapshot = graphManager.getSnapshot();
+        assertSame(snapshot, graphManager.getSnapshot(), "Snapshot should be reused while the graph is unchanged");
+        assertEquals(4, snapshot.nodeCount(), "Snapshot should have 4 nodes");
+        assertEquals(4, snapshot.edgeCount(), "Snapshot should have 4 edges");
+        assertEquals(2, snapshot.degree(snapshot.idOf("A")), "A should have 2 out-edges");
+        assertEquals(-1, snapshot.idOf("Missing"), "Unknown labels should map to -1");
+
+        graphManager.addEdge("D", "E");
+        assertNotSame(snapshot, graphManager.getSnapshot(), "Mutation should invalidate the snapshot");
+        assertEquals("A -> D -> E", graphManager.searchPath("A", "E", Algorithm.BFS).toString(),
+                "Search should see the edge added after the first snapshot");
+    }
+
+    @Test
+    void testTemplatesAndPathFinderOnSnapshot() {
+        setupTestGraph();
+        GraphSnapshot snapshot = graphManager.getSnapshot();
+
+        assertEquals("A -> B -> C", new BFSTemplate(snapshot).findPath("A", "C").toString(),
+                "BFS template should find shortest path");
+        GraphPath dfsPath = new DFSTemplate(snapshot).findPath("A", "C");
+        assertNotNull(dfsPath, "DFS template should find a path");
+        assertEquals("C", dfsPath.getNodes().get(dfsPath.getNodes().size() - 1), "DFS template path should end at C");
+        assertEquals("A -> D", new GraphPathFinder(snapshot).findPath("A", "D", Algorithm.BFS).toString(),
+                "Path finder BFS should find direct path");
+        assertThrows(IllegalArgumentException.class, () -> new BFSTemplate(snapshot).findPath("A", "Missing"),
+                "Template should reject unknown nodes");
+    }
+
+    @Test
+    void testIndexesStayConsistentAcrossMutations() throws IOException {
+        Path dotFile = tempDir.resolve("indexed.dot");
+        Files.writeString(dotFile, "digraph G { a -> b; b -> c; }");
+        assertTrue(graphManager.parseGraph(dotFile.toString()), "Parsing should succeed");
+
+        assertFalse(graphManager.addNode("a"), "Parsed node should already be indexed");
+        assertFalse(graphManager.addEdge("a", "b"), "Parsed edge should already be indexed");
+
+        assertTrue(graphManager.removeEdge("a", "b"), "Should remove parsed edge");
+        assertTrue(graphManager.addEdge("a", "b"), "Removed edge should be addable again");
+
+        assertTrue(graphManager.removeNode("b"), "Should remove node b");
+        assertEquals(0, graphManager.getEdgeCount(), "Edges touching b should be gone");
+        assertTrue(graphManager.addEdge("b", "c"), "Edge from re-created node should be new");
+        assertEquals(3, graphManager.getNodeCount(), "Should have a, b and c");
+        assertEquals(1, graphManager.getEdgeCount(), "Should have 1 edge");
+    }
+
+    @Test
+    void testRemoveNodeUnlinksOnlyItsEdges() {
+        setupTestGraph();
+        graphManager.addEdge("C", "C"); // Self loop
+        graphManager.addEdge("C", "A");
+
+        assertTrue(graphManager.removeNode("C"), "Should remove C");
+        assertEquals(3, graphManager.getNodeCount(), "Should have A, B and D");
+        assertEquals(2, graphManager.getEdgeCount(), "Only A -> B and A -> D should remain");
+        assertTrue(graphManager.toString().contains("Number of edges: 2"), "Rendered view should reflect removal");
+        assertNull(graphManager.searchPath("B", "D", Algorithm.BFS), "B should no longer reach D");
+        assertEquals("A -> D", graphManager.searchPath("A", "D", Algorithm.BFS).toString(),
+                "Unrelated edges should be untouched");
+
+        assertTrue(graphManager.addEdge("B", "C"), "Re-created C should accept new in-edges");
+        assertTrue(graphManager.removeNode("B"), "Should remove B");
+        assertFalse(graphManager.toString().contains("B"), "B should be gone from the rendered view");
+        assertEquals(1, graphManager.getEdgeCount(), "Only A -> D should remain");
+    }
+
+    @Test
+    void testBidirectionalBFSMatchesBFSWithReusedContexts() {
+        // A large graph, then a small one, so the pooled arrays outlive their first size
+        for (int nodes : new int[]{3000, 50}) {
+            GraphSnapshotBuilder builder = new GraphSnapshotBuilder();
+            for (int i = 0; i < nodes; i++) {
+                builder.addNode("n" + i);
+            }
+            Random random = new Random(nodes);
+            for (int i = 0; i < nodes * 2; i++) {
+                builder.addEdge(random.nextInt(nodes), random.nextInt(nodes));
+            }
+            GraphSnapshot snapshot = builder.build();
+            SearchStrategy bfs = new BFSSearchStrategy();
+            SearchStrategy bidirectional = new BidirectionalBFSSearchStrategy();
+            for (int q = 0; q < 300; q++) {
+                String src = "n" + random.nextInt(nodes);
+                String dst = "n" + random.nextInt(nodes);
+                GraphPath expected = bfs.findPath(snapshot, src, dst);
+                GraphPath actual = bidirectional.findPath(snapshot, src, dst);
+                assertEquals(expected == null ? -1 : expected.hops(), actual == null ? -1 : actual.hops(),
+                        "Hops from " + src + " to " + dst);
+            }
+        }
+    }
+
+    @Test
+    void testSearchPathBidirectionalBFS() {
+        setupTestGraph();
+        graphManager.addEdge("D", "E");
+        graphManager.addEdge("E", "F");
+        graphManager.addEdge("B", "F");
+
+        assertEquals("A -> D", graphManager.searchPath("A", "D", Algorithm.BIDIRECTIONAL_BFS).toString(),
+                "Should find direct path from A to D");
+        assertEquals("A -> B -> C", graphManager.searchPath("A", "C", Algorithm.BIDIRECTIONAL_BFS).toString(),
+                "Should find shortest path through B");
+        assertEquals("A -> B -> F", graphManager.searchPath("A", "F", Algorithm.BIDIRECTIONAL_BFS).toString(),
+                "Should prefer the 2-hop path over A -> D -> E -> F");
+        assertEquals("A", graphManager.searchPath("A", "A", Algorithm.BIDIRECTIONAL_BFS).toString(),
+                "Path to self should only contain the node itself");
+        assertNull(graphManager.searchPath("F", "A", Algorithm.BIDIRECTIONAL_BFS),
+                "Should return null when no path exists");
+
+        GraphSnapshot snapshot = graphManager.getSnapshot();
+        int f = snapshot.idOf("F");
+        assertEquals(2, snapshot.inDegree(f), "F should have in-edges from B and E");
+    }
+
+    @Test
+    void testWeightedSearchesMatchBellmanFordWithReusedContexts() {
+        // A large graph, then a small one, so the pooled distances outlive their first size
+        for (int nodes : new int[]{3000, 50}) {
+            GraphSnapshotBuilder builder = new GraphSnapshotBuilder();
+            for (int i = 0; i < nodes; i++) {
+                builder.addNode("n" + i);
+            }
+            Random random = new Random(nodes);
+            int edges = nodes * 2;
+            int[] sources = new int[edges];
+            int[] targets = new int[edges];
+            double[] weights = new double[edges];
+            Set<Long> pairs = new HashSet<>();
+            for (int i = 0; i < edges; i++) {
+                do {
+                    sources[i] = random.nextInt(nodes);
+                    targets[i] = random.nextInt(nodes);
+                } while (!pairs.add((long) sources[i] * nodes + targets[i])); // build() keeps only the first
+                weights[i] = random.nextInt(10);
+                builder.addEdge(sources[i], targets[i], weights[i]);
+            }
+            GraphSnapshot snapshot = builder.build();
+            SearchStrategy dijkstra = new DijkstraSearchStrategy();
+            SearchStrategy aStar = new AStarSearchStrategy(SearchHeuristic.zero());
+            for (int q = 0; q < 10; q++) {
+                int src = random.nextInt(nodes);
+                double[] expected = new double[nodes];
+                Arrays.fill(expected, Double.POSITIVE_INFINITY);
+                expected[src] = 0;
+                for (boolean relaxed = true; relaxed; ) {
+                    relaxed = false;
+                    for (int i = 0; i < edges; i++) {
+                        if (expected[sources[i]] + weights[i] < expected[targets[i]]) {
+                            expected[targets[i]] = expected[sources[i]] + weights[i];
+                            relaxed = true;
+                        }
+                    }
+                }
+                for (int d = 0; d < 30; d++) {
+                    int dst = random.nextInt(nodes);
+                    for (SearchStrategy strategy : List.of(dijkstra, aStar)) {
+                        GraphPath actual = strategy.findPath(snapshot, "n" + src, "n" + dst);
+                        assertEquals(expected[dst], actual == null ? Double.POSITIVE_INFINITY : actual.getCost(),
+                                1e-9, strategy.getClass().getSimpleName() + " cost from n" + src + " to n" + dst);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSearchPathDijkstraWithDotWeights() throws IOException {
+        Path dotFile = tempDir.resolve("weighted.dot");
+        Files.writeString(dotFile, "digraph G { a -> b [weight=5]; a -> c [weight=1]; c -> b [len=2]; b -> d; }");
+        assertTrue(graphManager.parseGraph(dotFile.toString()), "Parsing should succeed");
+
+        GraphPath path = graphManager.searchPath("a", "d", Algorithm.DIJKSTRA);
+        assertNotNull(path, "Should find a weighted path from a to d");
+        assertEquals("a -> c -> b -> d", path.toString(), "Dijkstra should take the cheaper detour through c");
+        assertEquals(4.0, path.getCost(), 1e-9, "Cost should be 1 + 2 + default weight 1");
+        assertEquals("a -> b -> d", graphManager.searchPath("a", "d", Algorithm.BFS).toString(),
+                "BFS should still ignore weights");
+        assertTrue(Double.isNaN(graphManager.searchPath("a", "d", Algorithm.BFS).getCost()),
+                "Unweighted searches should not report a cost");
+        assertNull(graphManager.searchPath("d", "a", Algorithm.DIJKSTRA), "Should return null when no path exists");
+    }
+
+    @Test
+    void testAddWeightedEdge() {
+        assertTrue(graphManager.addEdge("A", "B", 10), "Should add weighted edge");
+        assertTrue(graphManager.addEdge("A", "C", 2.5), "Should add weighted edge");
+        assertTrue(graphManager.addEdge("C", "B", 2.5), "Should add weighted edge");
+        assertFalse(graphManager.addEdge("A", "B", 1), "Should not add duplicate edge");
+
+        GraphPath path = graphManager.searchPath("A", "B", Algorithm.DIJKSTRA);
+        assertEquals("A -> C -> B", path.toString(), "Should route around the heavy edge");
+        assertEquals(5.0, path.getCost(), 1e-9, "Cost should be the sum of edge weights");
+
+        graphManager.addEdge("B", "D", -1);
+        assertThrows(IllegalArgumentException.class, () -> graphManager.searchPath("A", "D", Algorithm.DIJKSTRA),
+                "Negative weights should be rejected");
+    }
+
+    @Test
+    void testAStarEuclideanHeuristicStaysAdmissible() throws IOException {
+        // Coordinates are far larger than the weights: the raw distance from B to G (14.1)
+        // overestimates the remaining cost of 1, which would make A* settle for S -> G
+        Path dotFile = tempDir.resolve("scaled.dot");
+        Files.writeString(dotFile, """
+                digraph G {
+                  S [pos="0,0!"]; G [pos="10,0!"]; B [pos="0,10!"];
+                  S -> G [weight=5];
+                  S -> B [weight=1];
+                  B -> G [weight=1];
+                }
+                """);
+        assertTrue(graphManager.parseGraph(dotFile.toString()));
+        GraphPath dijkstra = graphManager.searchPath("S", "G", Algorithm.DIJKSTRA);
+        GraphPath aStar = graphManager.searchPath("S", "G", Algorithm.A_STAR);
+        assertEquals(2.0, dijkstra.getCost(), 1e-9);
+        assertEquals(dijkstra.getCost(), aStar.getCost(), 1e-9, "Euclidean A* should agree with Dijkstra");
+        assertEquals("S -> B -> G", aStar.toString());
+
+        // A node without a position disables the estimate rather than risking an overestimate
+        graphManager.addEdge("S", "unplaced", 0.5);
+        graphManager.addEdge("unplaced", "G", 0.5);
+        assertEquals(1.0, graphManager.searchPath("S", "G", Algorithm.A_STAR).getCost(), 1e-9);
+    }
+
+    @Test
+    void testSearchPathAStarWithPositions() throws IOException {
+        // 6x6 grid with unit spacing and bidirectional unit edges
+        StringBuilder dot = new StringBuilder("digraph G {\n");
+        for (int x = 0; x < 6; x++) {
+            for (int y = 0; y < 6; y++) {
+                dot.append(String.format("  n%d_%d [pos=\"%d,%d!\"];\n", x, y, x, y));
+                if (x < 5) {
+                    dot.append(String.format("  n%d_%d -> n%d_%d; n%d_%d -> n%d_%d;\n", x, y, x + 1, y, x + 1, y, x, y));
+                }
+                if (y < 5) {
+                    dot.append(String.format("  n%d_%d -> n%d_%d; n%d_%d -> n%d_%d;\n", x, y, x, y + 1, x, y + 1, x, y));
+                }
+            }
+        }
+        dot.append("}\n");
+        Path dotFile = tempDir.resolve("grid.dot");
+        Files.writeString(dotFile, dot.toString());
+        assertTrue(graphManager.parseGraph(dotFile.toString()), "Parsing should succeed");
+
+        GraphPath aStar = graphManager.searchPath("n0_0", "n5_0", Algorithm.A_STAR);
+        GraphPath dijkstra = graphManager.searchPath("n0_0", "n5_0", Algorithm.DIJKSTRA);
+        GraphPath bfs = graphManager.searchPath("n0_0", "n5_0", Algorithm.BFS);
+        assertNotNull(aStar, "A* should find a path");
+        assertEquals(5.0, aStar.getCost(), 1e-9, "A* should find the shortest path");
+        assertEquals(dijkstra.getCost(), aStar.getCost(), 1e-9, "A* and Dijkstra should agree on cost");
+        assertTrue(aStar.getExpandedNodes() < bfs.getExpandedNodes(),
+                "A* should expand fewer nodes than BFS (" + aStar.getExpandedNodes() + " vs " + bfs.getExpandedNodes() + ")");
+        System.out.println("Expanded nodes - A*: " + aStar.getExpandedNodes() + ", BFS: " + bfs.getExpandedNodes());
+
+        graphManager.setAStarHeuristic(SearchHeuristic.zero());
+        GraphPath blind = graphManager.searchPath("n0_0", "n5_0", Algorithm.A_STAR);
+        assertEquals(5.0, blind.getCost(), 1e-9, "Zero heuristic should still find the shortest path");
+        assertTrue(blind.getExpandedNodes() > aStar.getExpandedNodes(), "Zero heuristic should expand more nodes");
+        assertThrows(IllegalArgumentException.class, () -> graphManager.setAStarHeuristic(null),
+                "Should reject a null heuristic");
+    }
+
+    @Test
+    void testHeuristicChangeOutdatesInFlightResults() {
+        setupTestGraph();
+        graphManager.enablePathCache(100);
+        long version = graphManager.getVersion();
+        PathQuery query = new PathQuery("A", "C", Algorithm.A_STAR);
+        graphManager.setAStarHeuristic(SearchHeuristic.zero());
+        assertTrue(graphManager.getVersion() > version, "A new heuristic should start a new version");
+
+        // A search that started before the change finishes and stores its answer afterwards
+        GraphPath stale = new GraphPath();
+        stale.addNode("A");
+        stale.addNode("stale");
+        graphManager.getPathCache().store(query, version, stale);
+        assertEquals("A -> B -> C", graphManager.searchPath("A", "C", Algorithm.A_STAR).toString(),
+                "A result from the old heuristic should not be served");
+        assertEquals(4, graphManager.getSnapshot().nodeCount(), "The graph itself should be unchanged");
+    }
+
+    @Test
+    void testSearchPathParallelBFSMatchesBFS() {
+        // Large enough to split frontiers across tasks and trigger bottom-up steps
+        Random random = new Random(42);
+        int nodes = 20000;
+        for (int i = 0; i < 100000; i++) {
+            graphManager.addEdge("n" + random.nextInt(nodes), "n" + random.nextInt(nodes));
+        }
+        graphManager.addNode("isolated");
+
+        GraphSnapshot snapshot = graphManager.getSnapshot();
+        for (int i = 0; i < 20; i++) {
+            String src = "n" + random.nextInt(nodes);
+            String dst = "n" + random.nextInt(nodes);
+            GraphPath expected = graphManager.searchPath(src, dst, Algorithm.BFS);
+            GraphPath actual = graphManager.searchPath(src, dst, Algorithm.PARALLEL_BFS);
+            if (expected == null) {
+                assertNull(actual, "Parallel BFS should agree that " + dst + " is unreachable");
+                continue;
+            }
+            assertNotNull(actual, "Parallel BFS should find a path from " + src + " to " + dst);
+            assertEquals(expected.getNodes().size(), actual.getNodes().size(), "Paths should have the same length");
+            for (int j = 1; j < actual.getNodes().size(); j++) {
+                int from = snapshot.idOf(actual.getNodes().get(j - 1));
+                int to = snapshot.idOf(actual.getNodes().get(j));
+                boolean edgeExists = false;
+                for (int e = snapshot.edgeStart(from); e < snapshot.edgeEnd(from); e++) {
+                    edgeExists |= snapshot.target(e) == to;
+                }
+                assertTrue(edgeExists, "Every hop of the parallel path should be an edge");
+            }
+        }
+        assertNull(graphManager.searchPath("n0", "isolated", Algorithm.PARALLEL_BFS), "Should return null when no path exists");
+        assertEquals("n0", graphManager.searchPath("n0", "n0", Algorithm.PARALLEL_BFS).toString(),
+                "Path to self should only contain the node itself");
+    }
+
+    @Test
+    void testSearchPathsBatch() {
+        setupTestGraph();
+        graphManager.addNode("E"); // Isolated node
+
+        List<PathQuery> queries = List.of(
+                new PathQuery("A", "C", Algorithm.BFS),
+                new PathQuery("A", "E", Algorithm.BFS),
+                new PathQuery("A", "D", Algorithm.DIJKSTRA),
+                new PathQuery("B", "D", Algorithm.BIDIRECTIONAL_BFS));
+        List<GraphPath> results = graphManager.searchPaths(queries);
+
+        assertEquals(4, results.size(), "Should return one result per query");
+        assertEquals("A -> B -> C", results.get(0).toString(), "Results should keep query order");
+        assertNull(results.get(1), "Unreachable query should yield null");
+        assertEquals("A -> D", results.get(2).toString(), "Dijkstra query should be answered");
+        assertEquals("B -> C -> D", results.get(3).toString(), "Bidirectional query should be answered");
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            assertEquals("A -> B -> C", graphManager.searchPaths(queries, pool).get(0).toString(),
+                    "Bounded executor should give the same results");
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                () -> graphManager.searchPaths(List.of(new PathQuery("A", "Missing", Algorithm.BFS))),
+                "Failures should surface as the original exception");
+        assertThrows(IllegalArgumentException.class, () -> new PathQuery("A", "B", null),
+                "Should reject a null algorithm");
+    }
+
+    @Test
+    void testPathCacheInvalidatedByMutations() {
+        setupTestGraph();
+        graphManager.enablePathCache(100);
+        PathCache cache = graphManager.getPathCache();
+
+        assertEquals("A -> B -> C", graphManager.searchPath("A", "C", Algorithm.BFS).toString(), "First query should miss");
+        GraphPath cached = graphManager.searchPath("A", "C", Algorithm.BFS);
+        assertEquals("A -> B -> C", cached.toString(), "Second query should hit");
+        assertEquals(1, cache.getHitCount(), "Should record one hit");
+        assertEquals(1, cache.getMissCount(), "Should record one miss");
+
+        cached.addNode("X");
+        assertEquals("A -> B -> C", graphManager.searchPath("A", "C", Algorithm.BFS).toString(),
+                "Mutating a returned path should not corrupt the cache");
+
+        long version = graphManager.getVersion();
+        graphManager.addEdge("A", "C");
+        assertTrue(graphManager.getVersion() > version, "Mutation should bump the version");
+        assertEquals("A -> C", graphManager.searchPath("A", "C", Algorithm.BFS).toString(),
+                "Cached answer should not survive a mutation");
+        graphManager.removeEdge("A", "C");
+        assertEquals("A -> B -> C", graphManager.searchPath("A", "C", Algorithm.BFS).toString(),
+                "Cached answer should not survive an edge removal");
+
+        long misses = cache.getMissCount();
+        graphManager.searchPath("A", "C", Algorithm.RANDOM_WALK);
+        graphManager.searchPath("A", "C", Algorithm.RANDOM_WALK);
+        assertEquals(misses, cache.getMissCount(), "Random walks should bypass the cache");
+    }
+
+    @Test
+    void testPathCacheDropsOlderVersions() {
+        PathCache cache = new PathCache(10);
+        GraphPath path = new GraphPath();
+        path.addNode("A");
+        cache.store(new PathQuery("A", "A", Algorithm.BFS), 1, path);
+        cache.store(new PathQuery("A", "B", Algorithm.BFS), 1, null);
+        assertEquals(2, cache.size());
+        assertNull(cache.lookup(new PathQuery("B", "A", Algorithm.BFS), 2));
+        assertEquals(0, cache.size(), "A newer version should drop older entries and the label arrays they hold");
+        assertEquals(0, cache.weight());
+        cache.store(new PathQuery("A", "A", Algorithm.BFS), 1, path);
+        assertEquals(0, cache.size(), "A result of an older version should not be stored");
+    }
+
+    @Test
+    void testPathDoesNotPinSnapshot() throws InterruptedException {
+        GraphSnapshotBuilder builder = new GraphSnapshotBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.addNode("n" + i);
+            if (i > 0) {
+                builder.addEdge(i - 1, i);
+            }
+        }
+        GraphSnapshot snapshot = builder.build();
+        GraphPath path = new BFSSearchStrategy().findPath(snapshot, "n0", "n3");
+        WeakReference<GraphSnapshot> reference = new WeakReference<>(snapshot);
+        snapshot = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get(), "A path should not keep the snapshot's edges alive");
+
+        assertEquals("n0 -> n1 -> n2 -> n3", path.toString(), "Labels should still resolve");
+        path.addNode("n4");
+        assertEquals(4, path.getNodeId(4), "A label of the same snapshot should be stored as its id");
+        path.addNode("other");
+        assertEquals("n0 -> n1 -> n2 -> n3 -> n4 -> other", path.toString());
+        assertEquals(-1, path.getNodeId(0), "A foreign label should switch the path to labels");
+    }
+
+    @Test
+    void testPathCacheEviction() {
+        PathCache cache = new PathCache(2, 5);
+        GraphPath path = new GraphPath();
+        path.addNode("A");
+        path.addNode("B");
+
+        cache.store(new PathQuery("A", "B", Algorithm.BFS), 0, path);
+        cache.store(new PathQuery("A", "C", Algorithm.BFS), 0, null);
+        assertNotNull(cache.lookup(new PathQuery("A", "B", Algorithm.BFS), 0), "Entry should be cached");
+        cache.store(new PathQuery("A", "D", Algorithm.BFS), 0, path);
+        assertEquals(2, cache.size(), "Entry limit should evict the least recently used entry");
+        assertNull(cache.lookup(new PathQuery("A", "C", Algorithm.BFS), 0), "LRU entry should be gone");
+        assertEquals(4, cache.weight(), "Weight should count path nodes");
+
+        cache.store(new PathQuery("B", "D", Algorithm.DFS), 0, path);
+        assertTrue(cache.weight() <= 5, "Weight limit should hold");
+        assertNull(cache.lookup(new PathQuery("B", "D", Algorithm.DFS), 1), "Entries from an old version should miss");
+    }
+
+    @Test
+    void testParseGraphStreaming() throws IOException {
+        Path dotFile = tempDir.resolve("stream.dot");
+        Files.writeString(dotFile, String.join("\n",
+                "# generated",
+                "strict digraph \"big graph\" {",
+                "  rankdir=LR; // graph attribute",
+                "  edge [weight=2]",
+                "  A [pos=\"0,0!\"]; \"B C\" [label=\"x\", pos=\"1,0\"]",
+                "  A -> \"B C\" -> D /* chain */",
+                "  A -> D [weight=10];",
+                "  D -> \"quote\\\"d\" [len=3];",
+                "  E",
+                "}"));
+
+        assertTrue(graphManager.parseGraphStreaming(dotFile.toString()), "Streaming parse should succeed");
+        assertEquals(5, graphManager.getNodeCount(), "Should count isolated nodes");
+        assertEquals(4, graphManager.getEdgeCount(), "Should count each edge of the chain");
+
+        GraphSnapshot snapshot = graphManager.getSnapshot();
+        assertTrue(snapshot.hasPosition(snapshot.idOf("B C")), "Should keep pos of quoted labels");
+        GraphPath path = graphManager.searchPath("A", "quote\"d", Algorithm.DIJKSTRA);
+        assertEquals("A -> B C -> D -> quote\"d", path.toString(), "Default weights should beat the heavy edge");
+        assertEquals(6.0, path.getCost(), 1e-9, "Default weight should take precedence over len");
+
+        graphManager.addEdge("E", "A");
+        assertEquals(5, graphManager.getEdgeCount(), "Mutation should work on a streamed graph");
+        assertEquals(6.0, graphManager.searchPath("A", "quote\"d", Algorithm.DIJKSTRA).getCost(), 1e-9,
+                "Weights should survive materialization");
+        assertEquals("E -> A -> D", graphManager.searchPath("E", "D", Algorithm.BFS).toString(),
+                "Materialized graph should search like the streamed one");
+
+        Path subgraph = tempDir.resolve("subgraph.dot");
+        Files.writeString(subgraph, "digraph { subgraph cluster { A -> B } }");
+        assertFalse(graphManager.parseGraphStreaming(subgraph.toString()), "Subgraphs are not supported");
+        Path broken = tempDir.resolve("broken.dot");
+        Files.writeString(broken, "digraph { A -> ; }");
+        assertFalse(graphManager.parseGraphStreaming(broken.toString()), "Should reject a dangling edge");
+    }
+
+    @Test
+    void testSaveAndLoadSnapshot() throws IOException {
+        setupTestGraph();
+        graphManager.addNode("Ünïcode \"node\"");
+        graphManager.addEdge("D", "Ünïcode \"node\"", 2.5);
+        Path snapshotFile = tempDir.resolve("graph.snap");
+        assertTrue(graphManager.saveSnapshot(snapshotFile.toString()), "Snapshot should be saved");
+
+        GraphManager loaded = new GraphManager();
+        assertTrue(loaded.loadSnapshot(snapshotFile.toString()), "Snapshot should load");
+        assertEquals(graphManager.getNodeCount(), loaded.getNodeCount(), "Node count should round-trip");
+        assertEquals(graphManager.getEdgeCount(), loaded.getEdgeCount(), "Edge count should round-trip");
+        GraphPath path = loaded.searchPath("A", "Ünïcode \"node\"", Algorithm.DIJKSTRA);
+        assertEquals("A -> D -> Ünïcode \"node\"", path.toString(), "Labels and edges should round-trip");
+        assertEquals(3.5, path.getCost(), 1e-9, "Weights should round-trip");
+        assertNull(loaded.searchPath("C", "A", Algorithm.BIDIRECTIONAL_BFS), "In-edges should round-trip");
+        assertTrue(loaded.addEdge("C", "A"), "Loaded graph should accept mutations");
+
+        byte[] bytes = Files.readAllBytes(snapshotFile);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(snapshotFile, bytes);
+        assertFalse(loaded.loadSnapshot(snapshotFile.toString()), "Checksum should catch corruption");
+        Files.writeString(snapshotFile, "digraph { A -> B }");
+        assertFalse(loaded.loadSnapshot(snapshotFile.toString()), "Should reject files that are not snapshots");
+    }
+
+    @Test
+    void testSnapshotWriteIsAtomicAndReadSpansBuffers() throws IOException {
+        // Several MB of arrays, so reads cross the 1 MB buffer many times
+        GraphSnapshotBuilder builder = new GraphSnapshotBuilder();
+        int nodes = 100_000;
+        for (int i = 0; i < nodes; i++) {
+            builder.addNode("n" + i);
+        }
+        Random random = new Random(3);
+        for (int i = 0; i < 300_000; i++) {
+            builder.addEdge(random.nextInt(nodes), random.nextInt(nodes), 1 + random.nextInt(9));
+        }
+        GraphSnapshot original = builder.build();
+        Path snapshotFile = tempDir.resolve("large.snap");
+        GraphSnapshotFile.write(original, snapshotFile);
+        GraphSnapshot read = GraphSnapshotFile.read(snapshotFile);
+        assertEquals(original.edgeCount(), read.edgeCount());
+        for (int node = 0; node < nodes; node += 997) {
+            assertEquals(original.label(node), read.label(node));
+            assertEquals(original.edgeStart(node), read.edgeStart(node));
+            assertEquals(original.inEdgeStart(node), read.inEdgeStart(node));
+        }
+        for (int e = 0; e < original.edgeCount(); e += 1009) {
+            assertEquals(original.target(e), read.target(e));
+            assertEquals(original.weight(e), read.weight(e));
+        }
+
+        // A save that fails part way leaves the previous snapshot in place
+        setupTestGraph();
+        Path saved = tempDir.resolve("saved.snap");
+        assertTrue(graphManager.saveSnapshot(saved.toString()));
+        graphManager.addNode("E");
+        Files.createDirectory(tempDir.resolve("saved.snap.tmp")); // The temporary file cannot be created
+        assertFalse(graphManager.saveSnapshot(saved.toString()));
+        assertFalse(Files.exists(tempDir.resolve("saved.snap.tmp")), "The temporary file should be cleaned up");
+        GraphManager loaded = new GraphManager();
+        assertTrue(loaded.loadSnapshot(saved.toString()));
+        assertEquals(4, loaded.getNodeCount());
+    }
+
+    @Test
+    void testOutputDOTGraphRoundTripsBackslashes() throws IOException {
+        String[] labels = {"ends with\\", "two\\\\", "mid\\dle", "before \\\"quote"};
+        for (int i = 0; i < labels.length; i++) {
+            graphManager.addEdge("root", labels[i], i + 2);
+        }
+        // graphviz-java's line continuation also eats the whitespace after it, so this one
+        // only round-trips through the streaming parser, which follows the DOT spec
+        graphManager.addEdge("root", "before\\\nnewline", 10);
+        Path outputFile = tempDir.resolve("backslashes.dot");
+        assertTrue(graphManager.outputDOTGraph(outputFile.toString()));
+
+        GraphManager parsed = new GraphManager();
+        assertTrue(parsed.parseGraph(outputFile.toString()), "Output should be valid DOT");
+        GraphManager streamed = new GraphManager();
+        assertTrue(streamed.parseGraphStreaming(outputFile.toString()), "Output should stream back");
+        for (GraphManager reparsed : List.of(parsed, streamed)) {
+            assertEquals(labels.length + 2, reparsed.getNodeCount());
+            for (int i = 0; i < labels.length; i++) {
+                assertEquals(i + 2, reparsed.searchPath("root", labels[i], Algorithm.DIJKSTRA).getCost(), 1e-9,
+                        "Label should round-trip: " + labels[i]);
+            }
+        }
+        assertEquals(10, streamed.searchPath("root", "before\\\nnewline", Algorithm.DIJKSTRA).getCost(), 1e-9);
+    }
+
+    @Test
+    void testOutputDOTGraphStreamsAllNodes() throws IOException {
+        setupTestGraph();
+        graphManager.addNode("Lonely");
+        graphManager.addNode("say \"hi\"");
+        graphManager.addEdge("D", "say \"hi\"", 2.5);
+
+        Path outputFile = tempDir.resolve("streamed.dot");
+        assertTrue(graphManager.outputDOTGraph(outputFile.toString()), "Output should succeed");
+        String content = Files.readString(outputFile);
+        assertTrue(content.contains("\"Lonely\""), "Isolated nodes should be written");
+        assertTrue(content.contains("\"D\" -> \"say \\\"hi\\\"\" [weight=2.5]"), "Quotes should be escaped");
+
+        GraphManager reparsed = new GraphManager();
+        assertTrue(reparsed.parseGraph(outputFile.toString()), "Output should parse back");
+        assertEquals(graphManager.getNodeCount(), reparsed.getNodeCount(), "Node count should round-trip");
+        assertEquals(graphManager.getEdgeCount(), reparsed.getEdgeCount(), "Edge count should round-trip");
+        assertEquals(3.5, reparsed.searchPath("A", "say \"hi\"", Algorithm.DIJKSTRA).getCost(), 1e-9,
+                "Weights should round-trip");
+
+        Path gzipFile = tempDir.resolve("streamed.dot.gz");
+        assertTrue(graphManager.outputDOTGraph(gzipFile.toString(), true), "Gzip output should succeed");
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(gzipFile))) {
+            assertEquals(content, new String(in.readAllBytes(), StandardCharsets.UTF_8),
+                    "Gzip output should match the plain output");
+        }
+    }
+
+    @Test
+    void testImportEdgeList() throws IOException {
+        Path edgeList = tempDir.resolve("edges.csv");
+        Files.writeString(edgeList, String.join("\n",
+                "# src,dst,weight",
+                "A,B,2",
+                "B C 0.5",
+                "",
+                "C\tD",
+                "A D 10",
+                "A,B,7",
+                "Lonely Lonely"));
+
+        assertTrue(graphManager.importEdgeList(edgeList.toString()), "Import should succeed");
+        assertEquals(5, graphManager.getNodeCount(), "Should create each label once");
+        assertEquals(5, graphManager.getEdgeCount(), "Duplicate edges should be dropped");
+        GraphPath path = graphManager.searchPath("A", "D", Algorithm.DIJKSTRA);
+        assertEquals("A -> B -> C -> D", path.toString(), "Weights should be read");
+        assertEquals(3.5, path.getCost(), 1e-9, "The first copy of a duplicate edge should win");
+
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 400000; i++) {
+            large.append("n").append(i).append(" n").append(i + 1).append('\n');
+        }
+        Files.writeString(edgeList, large);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            GraphSnapshot snapshot = EdgeListImporter.load(edgeList, pool, 1 << 16);
+            assertEquals(400001, snapshot.nodeCount(), "Chunks should share one label dictionary");
+            assertEquals(400000, snapshot.edgeCount(), "Lines split across chunks should not be lost");
+            for (int i = 0; i <= 400000; i += 1000) {
+                assertEquals(i, snapshot.idOf("n" + i), "Ids should follow file order");
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Files.writeString(edgeList, "A B\nC\n");
+        assertFalse(graphManager.importEdgeList(edgeList.toString()), "Should reject a line with one field");
+        Files.writeString(edgeList, "A B heavy\n");
+        assertFalse(graphManager.importEdgeList(edgeList.toString()), "Should reject a non-numeric weight");
+    }
+
+    @Test
+    void testToStringOfLongChainReadsTheIndexes() throws IOException {
+        StringBuilder edges = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            edges.append("n").append(i).append(" n").append(i + 1).append('\n');
+        }
+        Path edgeList = tempDir.resolve("chain.txt");
+        Files.writeString(edgeList, edges);
+        assertTrue(graphManager.importEdgeList(edgeList.toString()), "Import should succeed");
+        String text = graphManager.toString();
+        // The graphviz model hashes nodes recursively, which overflows the stack on a chain this long
+        assertTrue(text.contains("Number of edges: 20000"), "toString should not walk the graphviz model");
+        assertTrue(text.contains("n19999 -> n20000"), "toString should list the edges");
+    }
+
+    @Test
+    void testParseGraphIndexesSubgraphs() throws IOException {
+        Path dotFile = tempDir.resolve("subgraph.dot");
+        Files.writeString(dotFile, "digraph { a -> b; subgraph cluster_0 { x -> y } b -> x }");
+        assertTrue(graphManager.parseGraph(dotFile.toString()), "Parse should succeed");
+        assertEquals(4, graphManager.getNodeCount(), "Should index nodes inside subgraphs");
+        assertEquals(3, graphManager.getEdgeCount());
+        assertEquals("a -> b -> x -> y", graphManager.searchPath("a", "y", Algorithm.BFS).toString(),
+                "Should index edges inside subgraphs");
+    }
+
+    @Test
+    void testParseGraphMergesNodesRedeclaredInSubgraphs() throws IOException {
+        // The parser creates a second node for b inside the subgraph; its links belong to b too
+        Path dotFile = tempDir.resolve("redeclared.dot");
+        Files.writeString(dotFile, "digraph { a -> b; subgraph cluster_0 { b -> c } b -> d }");
+        assertTrue(graphManager.parseGraph(dotFile.toString()), "Parse should succeed");
+        assertEquals(4, graphManager.getNodeCount(), "b should be indexed once");
+        assertEquals(3, graphManager.getEdgeCount());
+        assertEquals("a -> b -> c", graphManager.searchPath("a", "c", Algorithm.BFS).toString(),
+                "Links of the redeclared node should not be dropped");
+        assertEquals("a -> b -> d", graphManager.searchPath("a", "d", Algorithm.BFS).toString());
+        String text = graphManager.toString();
+        assertTrue(text.contains("b -> c") && text.contains("b -> d"), "toString should list both of b's edges");
+
+        assertTrue(graphManager.removeNode("b"));
+        assertEquals(3, graphManager.getNodeCount());
+        assertEquals(0, graphManager.getEdgeCount(), "Removing b should remove the links of every copy");
+    }
+
+    @Test
+    void testSubgraphNodesKeepTheirLinksInTheModel() throws IOException {
+        Path dotFile = tempDir.resolve("subgraph.dot");
+        Files.writeString(dotFile, "digraph { a -> b; subgraph cluster_0 { b -> c } }");
+        assertTrue(graphManager.parseGraph(dotFile.toString()), "Parse should succeed");
+        assertEquals("a -> b -> c", graphManager.searchPath("a", "c", Algorithm.BFS).toString(),
+                "Links of a subgraph copy should count for the label");
+
+        Path exported = tempDir.resolve("exported.dot");
+        graphManager.outputGraph(exported.toString());
+        String dot = Files.readString(exported);
+        assertEquals(dot.indexOf("\"c\""), dot.lastIndexOf("\"c\""), "Export should keep the edge only where it was declared");
+
+        assertTrue(graphManager.removeNode("a"), "Should remove a node");
+        assertEquals("b -> c", graphManager.searchPath("b", "c", Algorithm.BFS).toString(),
+                "Subgraph edges should survive the model being rebuilt");
+        assertTrue(graphManager.removeEdge("b", "c"), "Should remove the subgraph edge");
+        assertNull(graphManager.searchPath("b", "c", Algorithm.BFS), "Removed edge should not be searchable");
+    }
+
+    @Test
+    void testLatencyHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertEquals(100000, histogram.getCount(), "Should count every value");
+        assertEquals(50_000_000, histogram.getValueAtPercentile(50), 50_000_000 / 64.0, "p50 should be within precision");
+        assertEquals(99_000_000, histogram.getValueAtPercentile(99), 99_000_000 / 64.0, "p99 should be within precision");
+        assertEquals(100_000_000, histogram.getValueAtPercentile(100), "p100 should be the max");
+        assertEquals(1000, histogram.getMin(), "Should track the min");
+
+        LatencyHistogram other = new LatencyHistogram();
+        other.record(7);
+        histogram.merge(other);
+        assertEquals(7, histogram.getValueAtPercentile(0), "Small values should be exact after a merge");
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1), "Should reject negative values");
+    }
+
+    @Test
+    void testLoadTestReplay() throws IOException {
+        setupTestGraph();
+        Path workloadFile = tempDir.resolve("workload.txt");
+        Files.writeString(workloadFile, String.join("\n",
+                "# mixed workload",
+                "search A D",
+                "search A C dijkstra",
+                "addEdge C A 2.5",
+                "search A Missing",
+                "addNode E",
+                "removeEdge C A",
+                "removeNode E"));
+        List<LoadTest.Operation> workload = LoadTest.parseWorkload(workloadFile);
+        assertEquals(7, workload.size(), "Comments should be skipped");
+        assertEquals(Algorithm.DIJKSTRA, workload.get(1).algorithm(), "Algorithm names should be case-insensitive");
+
+        LoadTest.Report single = LoadTest.replay(graphManager, workload, 1, 0, 0);
+        assertEquals(7, single.getOperationCount(), "One pass should run each operation once");
+        assertEquals(3, single.getLatencies(LoadTest.OperationType.SEARCH).getCount(), "Should group by type");
+        assertEquals(1, single.getErrorCount(LoadTest.OperationType.SEARCH), "Missing nodes should count as errors");
+        assertEquals(4, graphManager.getNodeCount(), "Workload should leave the graph as it found it");
+
+        LoadTest.Report timed = LoadTest.replay(graphManager, workload, 4, 2000, 200_000_000L);
+        assertTrue(timed.getOperationCount() > 100 && timed.getOperationCount() <= 401,
+                "Open loop should follow the target rate: " + timed.getOperationCount());
+        assertTrue(timed.toString().contains("REMOVE_EDGE"), "Report should list every operation type");
+
+        Files.writeString(workloadFile, "search A\n");
+        assertThrows(IOException.class, () -> LoadTest.parseWorkload(workloadFile), "Should reject bad lines");
+    }
+
+    @Test
+    void testSearchMetrics() throws Exception {
+        setupTestGraph();
+        SearchMetrics metrics = graphManager.getSearchMetrics();
+        graphManager.getComponents(); // Waits for them, so the searches below are pruned
+        graphManager.searchPath("A", "D", Algorithm.BFS);
+        graphManager.searchPath("D", "A", Algorithm.BFS);
+        graphManager.searchPath("A", "C", Algorithm.DIJKSTRA);
+
+        AlgorithmStats bfs = metrics.snapshot(Algorithm.BFS);
+        assertEquals(2, bfs.getQueryCount(), "Should count every BFS query");
+        assertEquals(1, bfs.getNotFoundCount(), "D has no path back to A");
+        assertEquals(0.5, bfs.getFoundRatio(), 1e-9);
+        assertEquals(2, bfs.getNodesExpanded(), "A and B expanded for A -> D; D -> A is ruled out up front");
+        assertEquals(3, bfs.getEdgesScanned(), "A has two out-edges and B one");
+        assertEquals(2, bfs.getPeakFrontier(), "B and D are queued together");
+        assertTrue(bfs.getMaxLatencyMicros() > 0, "Latency should be recorded");
+        assertEquals(1, metrics.snapshot(Algorithm.DIJKSTRA).getFoundCount());
+        assertEquals(0, metrics.snapshot(Algorithm.DFS).getQueryCount());
+
+        graphManager.enablePathCache(16);
+        graphManager.searchPath("A", "C", Algorithm.BFS);
+        graphManager.searchPath("A", "C", Algorithm.BFS);
+        assertEquals(3, metrics.snapshot(Algorithm.BFS).getQueryCount(), "Cache hits do not run a search");
+
+        String name = "JGraphKit:type=SearchMetrics,name=test";
+        metrics.register(name);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(4L, server.getAttribute(new ObjectName(name), "TotalQueries"));
+            CompositeData[] algorithms = (CompositeData[]) server.getAttribute(new ObjectName(name), "Algorithms");
+            assertEquals(Algorithm.values().length, algorithms.length);
+            assertEquals("BFS", algorithms[0].get("algorithm"));
+            assertEquals(3L, algorithms[0].get("queryCount"));
+            server.invoke(new ObjectName(name), "reset", null, null);
+            assertEquals(0, metrics.getTotalQueries(), "Reset over JMX should clear the counters");
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(name)));
+    }
+
+    @Test
+    void testSearchesReusePooledContexts() {
+        GraphSnapshotBuilder builder = new GraphSnapshotBuilder();
+        int length = 200_000;
+        for (int i = 0; i < length; i++) {
+            builder.addNode("n" + i);
+        }
+        for (int i = 0; i + 1 < length; i++) {
+            builder.addEdge(i, i + 1);
+        }
+        GraphSnapshot chain = builder.build();
+        GraphPath deep = new DFSSearchStrategy().findPath(chain, "n0", "n" + (length - 1));
+        assertNotNull(deep, "Deep chains should not overflow the stack");
+        assertEquals(length, deep.getNodes().size());
+        assertEquals(length, deep.getExpandedNodes());
+        assertNull(new DFSSearchStrategy().findPath(chain, "n5", "n0"), "Chain edges only go forward");
+
+        // Contexts sized for the chain are reused on the small graph and must start clean
+        setupTestGraph();
+        GraphSnapshot small = graphManager.getSnapshot();
+        for (int round = 0; round < 3; round++) {
+            assertEquals("A -> D", new BFSSearchStrategy().findPath(small, "A", "D").toString());
+            assertEquals("A -> B -> C -> D", new DFSSearchStrategy().findPath(small, "A", "D").toString());
+            assertEquals("A -> D", new DFSTemplate(small).findPath("A", "D").toString());
+            assertEquals("A -> B -> C", new BFSTemplate(small).findPath("A", "C").toString());
+            assertNull(new BFSSearchStrategy().findPath(small, "D", "A"));
+            assertNull(new BFSTemplate(small).findPath("C", "B"));
+        }
+        assertEquals(length, new BFSSearchStrategy().findPath(chain, "n0", "n" + (length - 1)).getNodes().size());
+    }
+
+    @Test
+    void testRandomWalkEngine() {
+        setupTestGraph();
+        graphManager.setRandomWalkOptions(256, 100, 0.2);
+        assertEquals("A -> D", graphManager.searchPath("A", "D", Algorithm.RANDOM_WALK).toString(),
+                "Some walker should take the direct edge");
+        assertNull(graphManager.searchPath("D", "A", Algorithm.RANDOM_WALK), "D has no way back");
+
+        // Half the walkers get stuck at D unless they can restart from the source
+        RandomWalkEngine engine = graphManager.randomWalks().walkers(10_000).maxSteps(1000).seed(7);
+        RandomWalkEngine.HittingTimes stuck = engine.hittingTimes("A", "C");
+        assertEquals(0.5, stuck.getHitProbability(), 0.05);
+        assertEquals(2, stuck.getMinSteps(), "A -> B -> C is the quickest way");
+        RandomWalkEngine.HittingTimes restarting = engine.restartProbability(0.1).hittingTimes("A", "C");
+        assertEquals(1.0, restarting.getHitProbability(), 1e-9);
+        assertTrue(restarting.getMeanSteps() > 2, "Restarts and dead ends should cost extra steps");
+        RandomWalkEngine.HittingTimes again = graphManager.randomWalks().walkers(10_000).maxSteps(1000).seed(7)
+                .restartProbability(0.1).hittingTimes("A", "C");
+        assertEquals(restarting.toString(), again.toString(), "Seeded runs should be reproducible");
+        assertEquals(restarting.getTotalSteps(), again.getTotalSteps());
+
+        // Edges are taken in proportion to their weight
+        GraphManager weighted = new GraphManager();
+        weighted.addNodes(new String[]{"X", "Y", "Z"});
+        weighted.addEdge("X", "Y", 1);
+        weighted.addEdge("X", "Z", 3);
+        RandomWalkEngine.HittingTimes toZ = weighted.randomWalks().walkers(20_000).maxSteps(1).seed(1)
+                .hittingTimes("X", "Z");
+        assertEquals(0.75, toZ.getHitProbability(), 0.02);
+        assertThrows(IllegalArgumentException.class, () -> engine.restartProbability(1));
+    }
+
+    @Test
+    void testCentrality() {
+        setupTestGraph();
+        CentralityScores rank = graphManager.pageRank(0.85, 1e-10, 100);
+        assertTrue(rank.isConverged(), "Tiny graph should converge well within 100 iterations");
+        assertEquals(1.0, Arrays.stream(rank.getScores()).sum(), 1e-9, "Ranks should sum to one");
+        assertEquals("D", rank.top(1).get(0).label(), "D collects rank from both paths");
+        assertTrue(rank.getScore("B") > rank.getScore("A"));
+        assertEquals(4, rank.top(10).size());
+        assertFalse(graphManager.pageRank(0.85, 1e-10, 2).isConverged());
+
+        CentralityScores personal = graphManager.personalizedPageRank(List.of("C"), 0.85, 1e-10, 100);
+        assertEquals(0, personal.getScore("A"), 1e-12, "Nothing reaches A when jumps only go to C");
+        assertEquals(0, personal.getScore("B"), 1e-12);
+        assertEquals(1.0, personal.getScore("C") + personal.getScore("D"), 1e-9);
+
+        CentralityScores betweenness = graphManager.betweennessCentrality(100, 1);
+        assertEquals(1, betweenness.getScore("B"), 1e-12, "A -> B -> C is the only shortest A-C path");
+        assertEquals(1, betweenness.getScore("C"), 1e-12, "B -> C -> D is the only shortest B-D path");
+        assertEquals(0, betweenness.getScore("A"), 1e-12);
+        assertEquals(2.0 / 3, graphManager.degreeCentrality().getScore("A"), 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> graphManager.pageRank(1.0, 1e-6, 10));
+
+        // Chunked parallel runs must match a single thread exactly
+        GraphSnapshotBuilder builder = new GraphSnapshotBuilder();
+        Random random = new Random(3);
+        int nodes = 20_000;
+        for (int i = 0; i < nodes; i++) {
+            builder.addNode("n" + i);
+        }
+        for (int i = 0; i < nodes * 3; i++) {
+            builder.addEdge(random.nextInt(nodes), random.nextInt(nodes));
+        }
+        GraphSnapshot snapshot = builder.build();
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool many = new ForkJoinPool(4);
+        try {
+            CentralityScores one = new GraphCentrality(snapshot, single).pageRank(0.85, 1e-9, 200);
+            CentralityScores four = new GraphCentrality(snapshot, many).pageRank(0.85, 1e-9, 200);
+            assertTrue(four.isConverged());
+            assertEquals(one.getIterations(), four.getIterations());
+            assertArrayEquals(one.getScores(), four.getScores(), 1e-15);
+            assertEquals(1.0, Arrays.stream(four.getScores()).sum(), 1e-6);
+            assertArrayEquals(new GraphCentrality(snapshot, single).betweenness(50, 9).getScores(),
+                    new GraphCentrality(snapshot, many).betweenness(50, 9).getScores(), 1e-6,
+                    "Same seed should sample the same sources");
+        } finally {
+            single.shutdown();
+            many.shutdown();
+        }
+    }
+
+    @Test
+    void testStronglyConnectedComponents() {
+        setupTestGraph();
+        graphManager.addNode("E");
+        graphManager.addEdge("C", "A"); // A, B, C now form a cycle
+        graphManager.addEdge("D", "E");
+        graphManager.addEdge("E", "D");
+        StronglyConnectedComponents scc = graphManager.getComponents();
+        assertEquals(2, scc.componentCount());
+        assertEquals(scc.component("A"), scc.component("C"));
+        assertEquals(List.of("D", "E"), scc.members(scc.component("E")).stream().sorted().toList());
+        assertEquals(1, scc.dagEdgeCount(), "Both A -> D and C -> D collapse into one DAG edge");
+        assertTrue(scc.component("A") > scc.component("D"), "Ids should follow reverse topological order");
+
+        assertEquals("C -> A", graphManager.searchPath("C", "A", Algorithm.BFS).toString());
+        assertEquals("E -> D", graphManager.searchPath("E", "D", Algorithm.DFS).toString());
+        long expanded = graphManager.getSearchMetrics().snapshot(Algorithm.DIJKSTRA).getNodesExpanded();
+        assertNull(graphManager.searchPath("E", "B", Algorithm.DIJKSTRA));
+        assertEquals(expanded, graphManager.getSearchMetrics().snapshot(Algorithm.DIJKSTRA).getNodesExpanded(),
+                "Unreachable pairs should be rejected without expanding anything");
+
+        // Searches skip branches that lead only into components that cannot reach dst
+        GraphManager funnel = new GraphManager();
+        funnel.addNodes(new String[]{"S", "T", "X1", "X2", "X3"});
+        funnel.addEdge("S", "X1");
+        funnel.addEdge("X1", "X2");
+        funnel.addEdge("X2", "X3");
+        funnel.addEdge("S", "T");
+        funnel.getComponents();
+        assertEquals("S -> T", funnel.searchPath("S", "T", Algorithm.DFS).toString());
+        assertEquals(1, funnel.getSearchMetrics().snapshot(Algorithm.DFS).getNodesExpanded(),
+                "Only S should be expanded; the X branch cannot reach T");
+
+        graphManager.removeEdge("C", "A");
+        assertEquals(4, graphManager.getComponents().componentCount(), "Components should follow mutations");
+        assertSame(graphManager.getComponents(), graphManager.getComponents(), "Components are built once per version");
+        assertNull(graphManager.searchPath("C", "A", Algorithm.BFS));
+    }
+
+    @Test
+    void testReachabilityIndex() {
+        setupTestGraph();
+        assertTrue(graphManager.isReachable("A", "D"));
+        assertTrue(graphManager.isReachable("B", "B"));
+        assertFalse(graphManager.isReachable("D", "A"));
+        assertThrows(IllegalArgumentException.class, () -> graphManager.isReachable("A", "Missing"));
+
+        graphManager.addEdge("D", "A");
+        assertTrue(graphManager.isReachable("D", "B"), "Index should be rebuilt after addEdge");
+        graphManager.removeEdge("D", "A");
+        graphManager.removeEdge("A", "D");
+        graphManager.removeEdge("B", "C");
+        assertFalse(graphManager.isReachable("A", "D"), "Index should be rebuilt after removeEdge");
+        assertNull(graphManager.searchPath("A", "D", Algorithm.BFS));
+
+        // Interval labels (forced with a closure limit of 0) must agree with the bitset closure and BFS
+        Random random = new Random(11);
+        GraphSnapshotBuilder builder = new GraphSnapshotBuilder();
+        int nodes = 300;
+        for (int i = 0; i < nodes; i++) {
+            builder.addNode("n" + i);
+        }
+        for (int i = 0; i < 450; i++) {
+            builder.addEdge(random.nextInt(nodes), random.nextInt(nodes));
+        }
+        GraphSnapshot snapshot = builder.build();
+        StronglyConnectedComponents scc = new StronglyConnectedComponents(snapshot);
+        ReachabilityIndex closure = new ReachabilityIndex(scc);
+        ReachabilityIndex intervals = new ReachabilityIndex(scc, 0, 5);
+        BFSSearchStrategy bfs = new BFSSearchStrategy();
+        for (int src = 0; src < nodes; src += 7) {
+            for (int dst = 0; dst < nodes; dst++) {
+                boolean expected = bfs.findPath(snapshot, "n" + src, "n" + dst) != null;
+                assertEquals(expected, closure.isReachable(src, dst), "closure " + src + " -> " + dst);
+                assertEquals(expected, intervals.isReachable(src, dst), "intervals " + src + " -> " + dst);
+            }
+        }
+    }
+
+    @Test
+    void testPublishedSnapshotsFollowSingleMutations() {
+        // Reads at random points, so versions are built both from long and short runs of changes
+        Random random = new Random(11);
+        Map<String, Map<String, Double>> expected = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            String a = "n" + random.nextInt(40);
+            String b = "n" + random.nextInt(40);
+            switch (random.nextInt(5)) {
+                case 0 -> {
+                    graphManager.addNode(a);
+                    expected.putIfAbsent(a, new HashMap<>());
+                }
+                case 1, 2 -> {
+                    double weight = 1 + random.nextInt(3);
+                    graphManager.addEdge(a, b, weight);
+                    expected.putIfAbsent(b, new HashMap<>());
+                    expected.computeIfAbsent(a, k -> new HashMap<>()).putIfAbsent(b, weight);
+                }
+                case 3 -> {
+                    graphManager.removeNode(a);
+                    expected.remove(a);
+                    expected.values().forEach(edges -> edges.remove(a));
+                }
+                default -> {
+                    if (expected.containsKey(a) && expected.containsKey(b)) {
+                        graphManager.removeEdge(a, b);
+                        expected.get(a).remove(b);
+                    }
+                }
+            }
+            if (random.nextInt(50) == 0 || i == 4999) {
+                assertSnapshotMatches(expected, graphManager.getSnapshot());
+            }
+        }
+    }
+
+    private static void assertSnapshotMatches(Map<String, Map<String, Double>> expected, GraphSnapshot snapshot) {
+        assertEquals(expected.size(), snapshot.nodeCount(), "Node count");
+        Map<String, Integer> inDegrees = new HashMap<>();
+        for (Map.Entry<String, Map<String, Double>> node : expected.entrySet()) {
+            int id = snapshot.idOf(node.getKey());
+            assertTrue(id >= 0, "Missing node " + node.getKey());
+            Map<String, Double> edges = new HashMap<>();
+            for (int e = snapshot.edgeStart(id); e < snapshot.edgeEnd(id); e++) {
+                edges.put(snapshot.label(snapshot.target(e)), snapshot.weight(e));
+            }
+            assertEquals(node.getValue(), edges, "Out-edges of " + node.getKey());
+            node.getValue().keySet().forEach(target -> inDegrees.merge(target, 1, Integer::sum));
+        }
+        for (String label : expected.keySet()) {
+            assertEquals(inDegrees.getOrDefault(label, 0), snapshot.inDegree(snapshot.idOf(label)), "In-degree of " + label);
+        }
+    }
+
+    @Test
+    void testSearchesDoNotWaitForTheWriter() throws Exception {
+        setupTestGraph();
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            synchronized (graphManager) { // Stands in for a writer holding the lock
+                Future<GraphPath> path = reader.submit(() -> graphManager.searchPath("A", "D", Algorithm.BFS));
+                assertEquals("A -> D", path.get(10, TimeUnit.SECONDS).toString(),
+                        "Search should use the published snapshot without locking");
+            }
+        } finally {
+            reader.shutdown();
+        }
+    }
+
+    @Test
+    void testConcurrentSearchesDuringMutations() throws Exception {
+        setupTestGraph();
+        graphManager.addNodes(new String[]{"X", "Y"});
+        graphManager.enablePathCache(64);
+        int rounds = 2000;
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; i < rounds; i++) {
+                    graphManager.addEdge("X", "Y");
+                    graphManager.addNode("T" + i);
+                    graphManager.removeEdge("X", "Y");
+                    graphManager.removeNode("T" + i);
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                done.set(true);
+            }
+        });
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> results = new ArrayList<>();
+        long before = graphManager.getVersion();
+        writer.start();
+        for (int r = 0; r < 4; r++) {
+            results.add(readers.submit(() -> {
+                int searches = 0;
+                while (!done.get() || searches == 0) {
+                    // Every snapshot is a whole version: A -> D never changes, X -> Y is all or nothing
+                    assertEquals("A -> D", graphManager.searchPath("A", "D", Algorithm.BFS).toString());
+                    GraphPath xy = graphManager.searchPath("X", "Y", Algorithm.BFS);
+                    assertTrue(xy == null || xy.toString().equals("X -> Y"));
+                    int nodes = graphManager.getSnapshot().nodeCount();
+                    assertTrue(nodes == 6 || nodes == 7, "Unexpected node count " + nodes);
+                    searches++;
+                }
+                return searches;
+            }));
+        }
+        writer.join();
+        for (Future<Integer> result : results) {
+            assertTrue(result.get() > 0);
+        }
+        readers.shutdown();
+        assertNull(failure.get(), "Writer should not fail: " + failure.get());
+        assertEquals(6, graphManager.getNodeCount());
+        assertEquals(before + 4 * rounds, graphManager.getVersion(), "Every mutation should bump the version once");
+        assertNull(graphManager.searchPath("X", "Y", Algorithm.BFS), "Readers should see the final version");
+    }
+
+    @Test
+    void testMutationJournalRecovery() throws IOException {
+        Path dir = tempDir.resolve("journal");
+        setupTestGraph();
+        assertTrue(graphManager.openJournal(dir.toString()));
+        assertTrue(Files.exists(dir.resolve("checkpoint-1.snap")), "Opening on a non-empty graph should checkpoint it");
+        graphManager.addNode("E");
+        graphManager.addEdge("D", "E", 2.5);
+        graphManager.removeEdge("A", "D");
+        graphManager.closeJournal();
+
+        GraphManager recovered = new GraphManager();
+        assertTrue(recovered.openJournal(dir.toString()));
+        assertEquals(5, recovered.getNodeCount());
+        assertEquals(4, recovered.getEdgeCount());
+        assertEquals("A -> B -> C -> D -> E", recovered.searchPath("A", "E", Algorithm.BFS).toString());
+        GraphSnapshot snapshot = recovered.getSnapshot();
+        int d = snapshot.idOf("D");
+        assertEquals(2.5, snapshot.weight(snapshot.edgeStart(d)));
+
+        // A crash in the middle of a record leaves a torn tail, which recovery drops
+        recovered.addNode("F");
+        recovered.closeJournal();
+        Path log = dir.resolve("journal.wal");
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        GraphManager afterCrash = new GraphManager();
+        assertTrue(afterCrash.openJournal(dir.toString()));
+        assertEquals(5, afterCrash.getNodeCount());
+        assertTrue(afterCrash.addNode("G"));
+
+        // A checkpoint folds the journal into a new snapshot generation
+        assertTrue(afterCrash.checkpoint());
+        assertTrue(Files.exists(dir.resolve("checkpoint-2.snap")));
+        assertFalse(Files.exists(dir.resolve("checkpoint-1.snap")));
+        assertEquals(16, Files.size(log), "The journal should be empty after a checkpoint");
+        afterCrash.removeNode("A");
+        afterCrash.closeJournal();
+
+        GraphManager reopened = new GraphManager();
+        assertTrue(reopened.openJournal(dir.toString(), 5, 1 << 20));
+        GraphSnapshot restored = reopened.getSnapshot();
+        Set<String> labels = new HashSet<>();
+        for (int id = 0; id < restored.nodeCount(); id++) {
+            labels.add(restored.label(id));
+        }
+        assertEquals(Set.of("B", "C", "D", "E", "G"), labels);
+        assertEquals("B -> C -> D -> E", reopened.searchPath("B", "E", Algorithm.BFS).toString());
+        reopened.closeJournal();
+    }
+
+    @Test
+    void testJournalReplayFailureRestoresGraph() throws IOException {
+        Path dir = tempDir.resolve("bad-journal");
+        Files.createDirectories(dir);
+        MutationJournal journal = MutationJournal.recover(dir.resolve("journal.wal"), 0, 0, (type, first, second, weight) -> {});
+        journal.append(MutationJournal.ADD_NODE, "A", null, Double.NaN);
+        journal.append(MutationJournal.ADD_EDGE, "A", "B", Double.NaN);
+        journal.append(MutationJournal.REMOVE_EDGE, "X", "Y", Double.NaN); // Fails on replay
+        journal.close();
+
+        setupTestGraph();
+        long version = graphManager.getVersion();
+        assertFalse(graphManager.openJournal(dir.toString()), "A record that cannot be replayed should fail the open");
+        assertEquals(4, graphManager.getNodeCount(), "The graph should be back as it was");
+        assertEquals(4, graphManager.getSnapshot().nodeCount(), "Readers should see the restored graph too");
+        assertEquals("A -> B -> C", graphManager.searchPath("A", "C", Algorithm.BFS).toString());
+        assertTrue(graphManager.getVersion() > version, "The partly replayed versions should not be reused");
+    }
+
+    @Test
+    void testJournalReportsCheckpointFailureSeparately() throws IOException {
+        Path dir = tempDir.resolve("lost-journal");
+        assertTrue(graphManager.openJournal(dir.toString(), 0, 1));
+        // Without its directory the next checkpoint cannot be written; the open journal still can be
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> graphManager.addNode("A"));
+        assertEquals("Checkpoint failed; the change is applied and journaled", e.getMessage());
+        assertEquals(1, graphManager.getNodeCount());
+        graphManager.closeJournal();
+    }
+
+    @Test
+    void testJournalCheckpointsStreamedGraph() throws IOException {
+        Path edges = tempDir.resolve("edges.txt");
+        Files.writeString(edges, "a b\nb c\n");
+        assertTrue(graphManager.importEdgeList(edges.toString()));
+        Path dir = tempDir.resolve("journal");
+        assertTrue(graphManager.openJournal(dir.toString()));
+        assertTrue(Files.exists(dir.resolve("checkpoint-1.snap")), "A graph held only as a snapshot should be checkpointed");
+        graphManager.addEdge("c", "d");
+        graphManager.closeJournal();
+
+        GraphManager recovered = new GraphManager();
+        assertTrue(recovered.openJournal(dir.toString()));
+        assertEquals(4, recovered.getNodeCount());
+        assertEquals(3, recovered.getEdgeCount());
+        recovered.closeJournal();
+    }
+
+    @Test
+    void testJournalRejectsAppendsAfterSyncFailure() throws IOException {
+        Path log = tempDir.resolve("journal.wal");
+        MutationJournal journal = MutationJournal.recover(log, 0, TimeUnit.HOURS.toNanos(1), (type, first, second, weight) -> {});
+        journal.append(MutationJournal.ADD_NODE, "A", null, Double.NaN);
+        // An interrupt closes the channel under the sync, as a failing disk would fail it
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(IOException.class, journal::sync);
+        } finally {
+            Thread.interrupted();
+        }
+        IOException e = assertThrows(IOException.class,
+                () -> journal.append(MutationJournal.ADD_NODE, "B", null, Double.NaN),
+                "Appends after a failed sync should fail rather than be silently lost");
+        assertEquals("Journal write failed", e.getMessage());
+        assertThrows(IOException.class, journal::close);
+    }
+
+    @Test
+    void testMutationBatch() {
+        setupTestGraph();
+        long before = graphManager.getVersion();
+        int applied = graphManager.batch()
+                .addNodes("E", "F")
+                .addEdge("D", "E")
+                .addEdge("E", "F", 3)
+                .addNode("A") // Already there: a no-op
+                .removeEdge("A", "D")
+                .removeNode("B")
+                .commit();
+        assertEquals(6, applied);
+        assertEquals(before + 1, graphManager.getVersion(), "A batch should bump the version once");
+        assertEquals(5, graphManager.getNodeCount());
+        assertEquals(3, graphManager.getEdgeCount());
+        assertNull(graphManager.searchPath("A", "F", Algorithm.BFS));
+        assertEquals("C -> D -> E -> F", graphManager.searchPath("C", "F", Algorithm.BFS).toString());
+
+        // The last change fails against the state left by the earlier ones, so none apply
+        MutationBatch invalid = graphManager.batch().addNode("G").removeNode("C").removeEdge("C", "D");
+        assertThrows(IllegalArgumentException.class, invalid::commit);
+        assertEquals(before + 1, graphManager.getVersion());
+        assertEquals(5, graphManager.getNodeCount());
+        assertThrows(IllegalStateException.class, invalid::commit);
+        assertThrows(IllegalArgumentException.class, () -> graphManager.batch().addEdge("A", null));
+        assertEquals(0, graphManager.batch().commit());
+        assertEquals(before + 1, graphManager.getVersion());
+    }
+
+    @Test
+    void testMutationBatchIsJournaledAsOneRecord() throws IOException {
+        Path dir = tempDir.resolve("batch-journal");
+        assertTrue(graphManager.openJournal(dir.toString()));
+        MutationBatch batch = graphManager.batch();
+        for (int i = 0; i < 1000; i++) {
+            batch.addEdge("n" + i, "n" + (i + 1), i);
+        }
+        batch.removeNode("n500").commit();
+        graphManager.closeJournal();
+
+        // Cutting anywhere into the record drops the whole batch rather than a prefix of it
+        Path log = dir.resolve("journal.wal");
+        long full = Files.size(log);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(full / 2);
+        }
+        GraphManager torn = new GraphManager();
+        assertTrue(torn.openJournal(dir.toString()));
+        assertEquals(0, torn.getNodeCount());
+        torn.batch().addEdge("x", "y").removeEdge("x", "y").commit();
+        torn.closeJournal();
+
+        GraphManager recovered = new GraphManager();
+        assertTrue(recovered.openJournal(dir.toString()));
+        assertEquals(2, recovered.getNodeCount());
+        assertEquals(0, recovered.getEdgeCount());
+        recovered.closeJournal();
+    }
+
+    @Test
+    void testCompactGraphPath() {
+        setupTestGraph();
+        GraphSnapshot snapshot = graphManager.getSnapshot();
+        GraphPath path = graphManager.searchPath("A", "C", Algorithm.BFS);
+        assertEquals(3, path.length());
+        assertEquals(2, path.hops());
+        assertEquals("B", path.getNode(1));
+        assertEquals(snapshot.idOf("B"), path.getNodeId(1));
+        assertEquals(List.of("A", "B", "C"), path.getNodes());
+        assertThrows(UnsupportedOperationException.class, () -> path.getNodes().add("X"));
+        assertThrows(IndexOutOfBoundsException.class, () -> path.getNode(3));
+        assertFalse(path.hasCost());
+        assertTrue(graphManager.searchPath("A", "C", Algorithm.DIJKSTRA).hasCost());
+
+        // Copies share storage until one of them grows
+        GraphPath copy = new GraphPath(path);
+        copy.addNode("D");
+        path.addNode("A");
+        assertEquals("A -> B -> C -> D", copy.toString());
+        assertEquals("A -> B -> C -> A", path.toString());
+
+        // Labels the snapshot does not know switch the path to stored labels
+        copy.addNode("Z");
+        assertEquals("A -> B -> C -> D -> Z", copy.toString());
+        assertEquals(-1, copy.getNodeId(0));
+        assertEquals(4, copy.hops());
+
+        // Labels still resolve against the snapshot the path was found in
+        GraphPath before = graphManager.searchPath("B", "D", Algorithm.BFS);
+        graphManager.removeNode("C");
+        assertEquals("B -> C -> D", before.toString());
+    }
+
     // Helper method to setup test graph
     private void setupTestGraph() {
         graphManager.addNode("A");